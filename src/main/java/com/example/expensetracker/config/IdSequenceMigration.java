@@ -0,0 +1,91 @@
+package com.example.expensetracker.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.sequence.SequenceSupport;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Migration path from IDENTITY columns to pooled sequences.
+ * Databases created before the switch already hold rows whose ids the new sequences
+ * know nothing about, so on startup (before the web server accepts requests) each
+ * sequence is moved past the table's highest id. Existing id columns are left as they
+ * are; Hibernate now supplies the ids explicitly. Sequences are only ever moved forward.
+ */
+@Component
+public class IdSequenceMigration implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(IdSequenceMigration.class);
+
+    /** Must match the allocationSize of the entities' @SequenceGenerator */
+    static final int ALLOCATION_SIZE = 50;
+
+    /** Table name to sequence name */
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "users", "users_seq",
+            "expenses", "expenses_seq",
+            "monthly_rollups", "monthly_rollups_seq");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final boolean enabled;
+
+    public IdSequenceMigration(JdbcTemplate jdbcTemplate,
+                               EntityManagerFactory entityManagerFactory,
+                               @Value("${expensetracker.id-sequences.align-on-startup:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        SequenceSupport sequenceSupport = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect().getSequenceSupport();
+
+        SEQUENCES.forEach((table, sequence) -> {
+            try {
+                align(sequenceSupport, table, sequence);
+            } catch (DataAccessException e) {
+                throw new RuntimeException("Could not align sequence " + sequence + " with table " + table, e);
+            }
+        });
+    }
+
+    private void align(SequenceSupport sequenceSupport, String table, String sequence) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        if (maxId == null) {
+            return;
+        }
+
+        if (!sequenceSupport.supportsSequences()) {
+            // Hibernate emulates the sequence with a one-row table holding the next value
+            int updated = jdbcTemplate.update("UPDATE " + sequence + " SET next_val = ? WHERE next_val <= ?",
+                    maxId + ALLOCATION_SIZE + 1, maxId + ALLOCATION_SIZE);
+            if (updated > 0) {
+                log.info("Moved {} past existing {} ids (max id {})", sequence, table, maxId);
+            }
+            return;
+        }
+
+        // Consumes one block; the pooled optimizer hands out (next - allocationSize, next]
+        Long next = jdbcTemplate.queryForObject(sequenceSupport.getSequenceNextValString(sequence), Long.class);
+        if (next != null && next - ALLOCATION_SIZE >= maxId) {
+            return;
+        }
+        long restart = maxId + ALLOCATION_SIZE + 1;
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + restart);
+        log.info("Restarted {} at {} past existing {} ids", sequence, restart, table);
+    }
+}
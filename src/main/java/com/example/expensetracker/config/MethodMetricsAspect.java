@@ -0,0 +1,100 @@
+package com.example.expensetracker.config;
+
+import com.example.expensetracker.repository.ExpenseRepository;
+import com.example.expensetracker.repository.UserRepository;
+import com.example.expensetracker.service.ExpenseService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Times every ExpenseRepository, UserRepository and ExpenseService method and records
+ * how many rows collection results returned.
+ * Meters: expensetracker.method.calls (timer) and expensetracker.method.rows (summary),
+ * tagged with component, method, outcome (success/error) and exception.
+ */
+@Aspect
+@Component
+public class MethodMetricsAspect {
+
+    private static final String CALLS = "expensetracker.method.calls";
+    private static final String ROWS = "expensetracker.method.rows";
+
+    private final MeterRegistry registry;
+
+    public MethodMetricsAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("this(com.example.expensetracker.repository.ExpenseRepository)"
+            + " || this(com.example.expensetracker.repository.UserRepository)"
+            + " || execution(* com.example.expensetracker.service.ExpenseService.*(..))")
+    public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+        String component = component(joinPoint.getThis());
+        String method = joinPoint.getSignature().getName();
+        String outcome = "success";
+        String exception = "none";
+
+        Timer.Sample sample = Timer.start(registry);
+        try {
+            Object result = joinPoint.proceed();
+            Integer rows = rowCount(result);
+            if (rows != null) {
+                DistributionSummary.builder(ROWS)
+                        .description("Rows returned by repository and service methods")
+                        .tags("component", component, "method", method)
+                        .publishPercentileHistogram()
+                        .register(registry)
+                        .record(rows);
+            }
+            return result;
+        } catch (Throwable e) {
+            outcome = "error";
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(CALLS)
+                    .description("Repository and service method latency")
+                    .tags("component", component, "method", method, "outcome", outcome, "exception", exception)
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+    }
+
+    private static String component(Object proxy) {
+        if (proxy instanceof ExpenseRepository) {
+            return "ExpenseRepository";
+        }
+        if (proxy instanceof UserRepository) {
+            return "UserRepository";
+        }
+        if (proxy instanceof ExpenseService) {
+            return "ExpenseService";
+        }
+        return proxy.getClass().getSimpleName();
+    }
+
+    /**
+     * Rows in a collection, page or optional result; null for scalars and streams
+     */
+    private static Integer rowCount(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.expensetracker.config;
+
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.repository.UserRepository;
+import com.example.expensetracker.service.MonthlyRollupService;
+import com.example.expensetracker.service.UserBalanceService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Migration path for ledgers created before monthly_rollups was maintained.
+ * Rollups are adjusted incrementally and a missing bucket is taken to be empty, so every
+ * user with expenses needs a complete set. Once the application is ready, each such user
+ * without any buckets is rebuilt in its own transaction on a single background task, so
+ * startup is not held up by it. Until a user's turn comes their monthly views may be
+ * incomplete; writes made in the meantime are folded in by the rebuild.
+ */
+@Component
+public class MonthlyRollupBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(MonthlyRollupBackfill.class);
+
+    private final UserRepository userRepository;
+    private final UserBalanceService userBalanceService;
+    private final MonthlyRollupService monthlyRollupService;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor taskExecutor;
+    private final boolean enabled;
+
+    public MonthlyRollupBackfill(UserRepository userRepository,
+                                 UserBalanceService userBalanceService,
+                                 MonthlyRollupService monthlyRollupService,
+                                 TransactionTemplate transactionTemplate,
+                                 @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                                 @Value("${expensetracker.aggregates.backfill-on-startup:true}") boolean enabled) {
+        this.userRepository = userRepository;
+        this.userBalanceService = userBalanceService;
+        this.monthlyRollupService = monthlyRollupService;
+        this.transactionTemplate = transactionTemplate;
+        this.taskExecutor = taskExecutor;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (enabled) {
+            taskExecutor.execute(this::rebuildUsersWithoutRollups);
+        }
+    }
+
+    private void rebuildUsersWithoutRollups() {
+        List<Long> userIds = userRepository.findIdsWithoutRollups();
+        if (userIds.isEmpty()) {
+            return;
+        }
+
+        log.info("Backfilling monthly rollups for {} users", userIds.size());
+        for (Long userId : userIds) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    User user = userRepository.getReferenceById(userId);
+                    // Holds off the user's inserts and deletes while the buckets are replaced
+                    userBalanceService.lockBalance(user);
+                    monthlyRollupService.rebuild(user);
+                });
+            } catch (RuntimeException e) {
+                // The nightly AggregateRepairJob rebuilds the user again
+                log.warn("Could not backfill monthly rollups for user {}", userId, e);
+            }
+        }
+        log.info("Monthly rollup backfill finished");
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.expensetracker.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Pool for shared reads started ahead of time (SingleFlight.submit), kept apart from the
+ * application task executor so imports, reindexing and account deletions cannot queue behind
+ * or ahead of them. Threads and queue are both bounded; once full, submissions are rejected
+ * immediately instead of waiting.
+ */
+@Configuration
+public class ReadExecutorConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor readTaskExecutor(StatementRecorderTaskDecorator statementRecorderTaskDecorator,
+                                                   @Value("${expensetracker.read-executor.pool-size:8}") int poolSize,
+                                                   @Value("${expensetracker.read-executor.queue-capacity:50}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("read-");
+        executor.setTaskDecorator(statementRecorderTaskDecorator);
+        return executor;
+    }
+}
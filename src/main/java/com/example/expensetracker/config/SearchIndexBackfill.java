@@ -0,0 +1,62 @@
+package com.example.expensetracker.config;
+
+import com.example.expensetracker.repository.UserRepository;
+import com.example.expensetracker.service.SearchIndexService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Migration path for ledgers created before the search index was maintained.
+ * Once the application is ready, users without a search_indexed_users marker are indexed
+ * one after another on a single background task, so the backfill neither delays startup nor
+ * competes with requests for more than one connection. Their searches scan until then.
+ */
+@Component
+public class SearchIndexBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchIndexBackfill.class);
+
+    private final UserRepository userRepository;
+    private final SearchIndexService searchIndexService;
+    private final TaskExecutor taskExecutor;
+    private final boolean enabled;
+
+    public SearchIndexBackfill(UserRepository userRepository,
+                               SearchIndexService searchIndexService,
+                               @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                               @Value("${expensetracker.search-index.backfill-on-startup:true}") boolean enabled) {
+        this.userRepository = userRepository;
+        this.searchIndexService = searchIndexService;
+        this.taskExecutor = taskExecutor;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (enabled) {
+            taskExecutor.execute(this::indexUnindexedUsers);
+        }
+    }
+
+    private void indexUnindexedUsers() {
+        List<Long> userIds = userRepository.findIdsWithoutSearchIndex();
+        if (userIds.isEmpty()) {
+            return;
+        }
+
+        log.info("Building the search index for {} users", userIds.size());
+        for (Long userId : userIds) {
+            // Failures are logged by the service; the user keeps scanning and is retried next start
+            searchIndexService.reindexNow(userRepository.getReferenceById(userId));
+        }
+        log.info("Search index backfill finished");
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.expensetracker.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements each request issues, including those run on worker threads
+ * on its behalf. Logs the count at debug level, and warns when a request goes over the
+ * statement budget or repeats one statement often enough to suggest an N+1 pattern.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class StatementCountingFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementCountingFilter.class);
+
+    private final int budget;
+    private final int repeatedThreshold;
+
+    public StatementCountingFilter(@Value("${expensetracker.sql.statement-budget:20}") int budget,
+                                   @Value("${expensetracker.sql.repeated-threshold:3}") int repeatedThreshold) {
+        this.budget = budget;
+        this.repeatedThreshold = repeatedThreshold;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.startsWith("/css/") || path.startsWith("/js/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        StatementRecorder.Recording recording = StatementRecorder.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            recording.close();
+            report(request, recording);
+        }
+    }
+
+    private void report(HttpServletRequest request, StatementRecorder.Recording recording) {
+        String target = request.getMethod() + " " + request.getRequestURI();
+        int count = recording.count();
+        log.debug("{} issued {} SQL statements", target, count);
+
+        if (budget > 0 && count > budget) {
+            log.warn("{} issued {} SQL statements, over the budget of {}", target, count, budget);
+        }
+        Map<String, Integer> repeated = recording.repeated(repeatedThreshold);
+        repeated.forEach((sql, times) ->
+                log.warn("{} ran the same statement {} times (possible N+1): {}", target, times, sql));
+    }
+}
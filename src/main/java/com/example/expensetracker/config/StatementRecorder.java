@@ -0,0 +1,128 @@
+package com.example.expensetracker.config;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the SQL statements Hibernate prepares while a recording is active on the current thread.
+ * Recordings nest: statements count towards the innermost recording and every enclosing one.
+ * CountingStatementInspector feeds it; StatementCountingFilter records each request, and
+ * tests can open their own recording to assert on a statement budget.
+ */
+public final class StatementRecorder {
+
+    private static final ThreadLocal<Recording> CURRENT = new ThreadLocal<>();
+
+    private StatementRecorder() {
+    }
+
+    /**
+     * Start recording on this thread; close the returned recording to stop
+     */
+    public static Recording start() {
+        Recording recording = new Recording(CURRENT.get());
+        CURRENT.set(recording);
+        return recording;
+    }
+
+    /**
+     * Recording active on this thread, or null; used to carry it over to worker threads
+     */
+    public static Recording current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Run the task with the given recording active, restoring whatever was active before
+     */
+    public static Runnable wrap(Recording recording, Runnable task) {
+        if (recording == null) {
+            return task;
+        }
+        return () -> {
+            Recording previous = CURRENT.get();
+            CURRENT.set(recording);
+            try {
+                task.run();
+            } finally {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    static void record(String sql) {
+        Recording recording = CURRENT.get();
+        if (recording != null) {
+            recording.record(sql);
+        }
+    }
+
+    public static final class Recording implements AutoCloseable {
+
+        private final Recording parent;
+        private final Map<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+        private final AtomicInteger total = new AtomicInteger();
+        private volatile boolean closed;
+
+        private Recording(Recording parent) {
+            this.parent = parent;
+        }
+
+        private void record(String sql) {
+            if (!closed) {
+                total.incrementAndGet();
+                counts.computeIfAbsent(sql, key -> new AtomicInteger()).incrementAndGet();
+            }
+            if (parent != null) {
+                parent.record(sql);
+            }
+        }
+
+        /**
+         * Statements prepared so far
+         */
+        public int count() {
+            return total.get();
+        }
+
+        /**
+         * Distinct statements with how often each was prepared, most frequent first
+         */
+        public Map<String, Integer> statements() {
+            List<Map.Entry<String, AtomicInteger>> entries = new ArrayList<>(counts.entrySet());
+            entries.sort((a, b) -> Integer.compare(b.getValue().get(), a.getValue().get()));
+            Map<String, Integer> result = new LinkedHashMap<>();
+            entries.forEach(entry -> result.put(entry.getKey(), entry.getValue().get()));
+            return result;
+        }
+
+        /**
+         * Statements prepared at least threshold times: the usual sign of an N+1 pattern
+         */
+        public Map<String, Integer> repeated(int threshold) {
+            Map<String, Integer> result = new LinkedHashMap<>();
+            statements().forEach((sql, count) -> {
+                if (count >= threshold) {
+                    result.put(sql, count);
+                }
+            });
+            return result;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            if (CURRENT.get() == this) {
+                if (parent != null) {
+                    CURRENT.set(parent);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.expensetracker.config;
+
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Carries the submitting thread's statement recording over to the application task
+ * executor and the read pool, so statements run in parallel on a request's behalf
+ * (DashboardAssembler) are counted against that request.
+ */
+@Component
+public class StatementRecorderTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        return StatementRecorder.wrap(StatementRecorder.current(), runnable);
+    }
+}
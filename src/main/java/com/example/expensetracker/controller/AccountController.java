@@ -0,0 +1,57 @@
+package com.example.expensetracker.controller;
+
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.security.CurrentUser;
+import com.example.expensetracker.service.AccountDeletionService;
+import com.example.expensetracker.service.AccountDeletionStatus;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+
+@RestController
+public class AccountController {
+
+    private final AccountDeletionService accountDeletionService;
+
+    public AccountController(AccountDeletionService accountDeletionService) {
+        this.accountDeletionService = accountDeletionService;
+    }
+
+    /**
+     * Delete the current user's account. The deletion runs in the background
+     * and the session is ended right away.
+     */
+    @DeleteMapping("/api/account")
+    public ResponseEntity<AccountDeletionStatus> deleteAccount(@CurrentUser User user, HttpServletRequest request)
+            throws ServletException {
+        AccountDeletionStatus status = accountDeletionService.requestDeletion(user.getId());
+        request.logout();
+        return ResponseEntity.accepted().body(status);
+    }
+
+    /**
+     * Start, or resume, the deletion of any user's account (admin only)
+     */
+    @PostMapping("/api/admin/account-deletions/{userId}")
+    public ResponseEntity<AccountDeletionStatus> startDeletion(@PathVariable Long userId) {
+        AccountDeletionStatus status = accountDeletionService.requestDeletion(userId);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/admin/account-deletions/" + userId))
+                .body(status);
+    }
+
+    /**
+     * Progress of an account deletion (admin only)
+     */
+    @GetMapping("/api/admin/account-deletions/{userId}")
+    public ResponseEntity<AccountDeletionStatus> deletionStatus(@PathVariable Long userId) {
+        return ResponseEntity.of(accountDeletionService.getStatus(userId));
+    }
+}
@@ -2,6 +2,7 @@ package com.example.expensetracker.controller;
 
 import com.example.expensetracker.model.User;
 import com.example.expensetracker.repository.UserRepository;
+import com.example.expensetracker.service.SearchIndexService;
 
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Controller;
@@ -13,11 +14,14 @@ public class AuthController {
 
     private final UserRepository userRepository;
     private final BCryptPasswordEncoder passwordEncoder;
+    private final SearchIndexService searchIndexService;
 
     public AuthController(UserRepository userRepository,
-                          BCryptPasswordEncoder passwordEncoder) {
+                          BCryptPasswordEncoder passwordEncoder,
+                          SearchIndexService searchIndexService) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.searchIndexService = searchIndexService;
     }
 
     @GetMapping("/login")
@@ -45,7 +49,9 @@ public class AuthController {
         }
 
         user.setPassword(passwordEncoder.encode(user.getPassword()));
-        userRepository.save(user);
+        User saved = userRepository.save(user);
+        // An empty ledger is fully indexed; every write from here on maintains the postings
+        searchIndexService.markIndexed(saved);
 
         return "redirect:/login";
     }
@@ -0,0 +1,41 @@
+package com.example.expensetracker.controller;
+
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.security.CurrentUser;
+import com.example.expensetracker.service.ChartAggregationService;
+import com.example.expensetracker.service.ChartData;
+import com.example.expensetracker.service.ExpenseFilter;
+import com.example.expensetracker.service.SingleFlight;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class ChartController {
+
+    private final ChartAggregationService chartAggregationService;
+    private final SingleFlight singleFlight;
+
+    public ChartController(ChartAggregationService chartAggregationService, SingleFlight singleFlight) {
+        this.chartAggregationService = chartAggregationService;
+        this.singleFlight = singleFlight;
+    }
+
+    /**
+     * Chart series for the dashboard, honouring the same filter parameters
+     */
+    @GetMapping("/api/charts")
+    public ChartData charts(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String period,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @CurrentUser User user) {
+
+        ExpenseFilter filter = ExpenseFilter.fromRequest(search, type, category, period, startDate, endDate);
+        return singleFlight.execute(user.getId(), "charts",
+                () -> chartAggregationService.getChartData(user, filter), filter);
+    }
+}
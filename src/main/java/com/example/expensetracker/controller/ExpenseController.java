@@ -2,28 +2,32 @@ package com.example.expensetracker.controller;
 
 import com.example.expensetracker.model.Expense;
 import com.example.expensetracker.model.User;
-import com.example.expensetracker.repository.UserRepository;
+import com.example.expensetracker.security.CurrentUser;
+import com.example.expensetracker.service.DashboardAssembler;
+import com.example.expensetracker.service.DashboardView;
+import com.example.expensetracker.service.ExpenseCursor;
+import com.example.expensetracker.service.ExpenseFilter;
+import com.example.expensetracker.service.ExpensePage;
 import com.example.expensetracker.service.ExpenseService;
-import org.springframework.security.core.Authentication;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.math.BigDecimal;
-import java.time.LocalDate;
-import java.time.temporal.TemporalAdjusters;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Controller
 public class ExpenseController {
 
+    private static final int PAGE_SIZE = 50;
+
     private final ExpenseService expenseService;
-    private final UserRepository userRepository;
+    private final DashboardAssembler dashboardAssembler;
 
-    public ExpenseController(ExpenseService expenseService, UserRepository userRepository) {
+    public ExpenseController(ExpenseService expenseService, DashboardAssembler dashboardAssembler) {
         this.expenseService = expenseService;
-        this.userRepository = userRepository;
+        this.dashboardAssembler = dashboardAssembler;
     }
 
     @GetMapping("/dashboard")
@@ -34,105 +38,51 @@ public class ExpenseController {
             @RequestParam(required = false) String period,
             @RequestParam(required = false) String startDate,
             @RequestParam(required = false) String endDate,
+            @RequestParam(required = false) String cursor,
             Model model, 
-            Authentication authentication) {
+            @CurrentUser User user) {
         
-        User user = userRepository.findByUsername(authentication.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        // Get all expenses for the user
-        List<Expense> expenses = expenseService.getAllExpensesForUser(user);
-
-        // Apply filters
-        expenses = applyFilters(expenses, search, type, category, period, startDate, endDate);
-
-        // Calculate totals (always based on ALL user's data, not filtered)
-        BigDecimal totalIncome = expenseService.calculateTotalIncome(user);
-        BigDecimal totalExpenses = expenseService.calculateTotalExpenses(user);
-        BigDecimal balance = expenseService.calculateBalance(user);
-
-        model.addAttribute("expenses", expenses);
-        model.addAttribute("totalIncome", totalIncome);
-        model.addAttribute("totalExpenses", totalExpenses);
-        model.addAttribute("balance", balance);
+        // Filters are evaluated by the database, one keyset page at a time; the page and the
+        // totals (always based on ALL user's data, not filtered) are loaded in parallel
+        ExpenseFilter filter = ExpenseFilter.fromRequest(search, type, category, period, startDate, endDate);
+        DashboardView view = dashboardAssembler.assemble(user, filter, ExpenseCursor.parse(cursor), PAGE_SIZE);
+        ExpensePage page = view.page();
+
+        model.addAttribute("expenses", page.expenses());
+        model.addAttribute("nextCursor", page.hasNext() ? page.nextCursor().encode() : null);
+        model.addAttribute("summary", view.summary());
         model.addAttribute("expense", new Expense());
         model.addAttribute("categories", Expense.Category.values());
 
         return "dashboard";
     }
 
-    private List<Expense> applyFilters(List<Expense> expenses, String search, String type, 
-                                       String category, String period, String startDate, String endDate) {
-        
-        // Filter by search (description)
-        if (search != null && !search.trim().isEmpty()) {
-            expenses = expenses.stream()
-                    .filter(e -> e.getDescription().toLowerCase().contains(search.toLowerCase()))
-                    .collect(Collectors.toList());
-        }
-
-        // Filter by type
-        if (type != null && !type.isEmpty()) {
-            Expense.TransactionType transactionType = Expense.TransactionType.valueOf(type);
-            expenses = expenses.stream()
-                    .filter(e -> e.getType() == transactionType)
-                    .collect(Collectors.toList());
-        }
-
-        // Filter by category
-        if (category != null && !category.isEmpty()) {
-            Expense.Category expenseCategory = Expense.Category.valueOf(category);
-            expenses = expenses.stream()
-                    .filter(e -> e.getCategory() == expenseCategory)
-                    .collect(Collectors.toList());
-        }
+    /**
+     * "Load more" support: renders only the next page of transaction rows
+     */
+    @GetMapping("/dashboard/transactions")
+    public String loadMoreTransactions(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String period,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam String cursor,
+            Model model,
+            @CurrentUser User user) {
 
-        // Filter by date period
-        if (period != null && !period.isEmpty()) {
-            LocalDate start = null;
-            LocalDate end = LocalDate.now();
-
-            switch (period) {
-                case "today":
-                    start = LocalDate.now();
-                    break;
-                case "this_week":
-                    start = LocalDate.now().with(TemporalAdjusters.previousOrSame(java.time.DayOfWeek.MONDAY));
-                    break;
-                case "this_month":
-                    start = LocalDate.now().withDayOfMonth(1);
-                    break;
-                case "last_month":
-                    start = LocalDate.now().minusMonths(1).withDayOfMonth(1);
-                    end = LocalDate.now().minusMonths(1).with(TemporalAdjusters.lastDayOfMonth());
-                    break;
-                case "custom":
-                    if (startDate != null && !startDate.isEmpty()) {
-                        start = LocalDate.parse(startDate);
-                    }
-                    if (endDate != null && !endDate.isEmpty()) {
-                        end = LocalDate.parse(endDate);
-                    }
-                    break;
-            }
+        ExpenseFilter filter = ExpenseFilter.fromRequest(search, type, category, period, startDate, endDate);
+        ExpensePage page = dashboardAssembler.loadPage(user, filter, ExpenseCursor.parse(cursor), PAGE_SIZE);
 
-            if (start != null) {
-                final LocalDate finalStart = start;
-                final LocalDate finalEnd = end;
-                expenses = expenses.stream()
-                        .filter(e -> !e.getDate().isBefore(finalStart) && !e.getDate().isAfter(finalEnd))
-                        .collect(Collectors.toList());
-            }
-        }
+        model.addAttribute("expenses", page.expenses());
+        model.addAttribute("nextCursor", page.hasNext() ? page.nextCursor().encode() : null);
 
-        return expenses;
+        return "dashboard :: transactionPage";
     }
 
     @PostMapping("/expense/add")
-    public String addExpense(@ModelAttribute Expense expense, Authentication authentication) {
-        User user = userRepository.findByUsername(authentication.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
+    public String addExpense(@ModelAttribute Expense expense, @CurrentUser User user) {
         expense.setUser(user);
         expenseService.saveExpense(expense);
 
@@ -140,25 +90,73 @@ public class ExpenseController {
     }
 
     @PostMapping("/expense/delete/{id}")
-    public String deleteExpense(@PathVariable Long id, Authentication authentication) {
-        User user = userRepository.findByUsername(authentication.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public String deleteExpense(@PathVariable Long id, @CurrentUser User user) {
+        // Owner-scoped: another user's id simply matches no row
+        expenseService.deleteExpense(id, user);
 
-        Expense expense = expenseService.getExpenseById(id);
-        
-        // Security check: ensure user can only delete their own expenses
-        if (expense.getUser().getId().equals(user.getId())) {
-            expenseService.deleteExpense(id);
+        return "redirect:/dashboard";
+    }
+
+    /**
+     * Delete, recategorize or retype several transactions in one request. Applies to the
+     * checked ids, or to every transaction matching the filter parameters when allMatching is set.
+     */
+    @PostMapping("/expense/bulk")
+    public String bulkUpdate(
+            @RequestParam String action,
+            @RequestParam(required = false) List<Long> ids,
+            @RequestParam(defaultValue = "false") boolean allMatching,
+            @RequestParam(required = false) String newCategory,
+            @RequestParam(required = false) String newType,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String period,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @CurrentUser User user) {
+
+        // Owner-scoped: ids of other users' transactions simply match no row
+        if (allMatching) {
+            ExpenseFilter filter = ExpenseFilter.fromRequest(search, type, category, period, startDate, endDate);
+            switch (action) {
+                case "delete" -> expenseService.deleteExpenses(user, filter);
+                case "category" -> expenseService.recategorizeExpenses(user, filter,
+                        bulkTarget(Expense.Category.class, "newCategory", newCategory));
+                case "type" -> expenseService.retypeExpenses(user, filter,
+                        bulkTarget(Expense.TransactionType.class, "newType", newType));
+                default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown bulk action: " + action);
+            }
+        } else if (ids != null && !ids.isEmpty()) {
+            switch (action) {
+                case "delete" -> expenseService.deleteExpenses(user, ids);
+                case "category" -> expenseService.recategorizeExpenses(user, ids,
+                        bulkTarget(Expense.Category.class, "newCategory", newCategory));
+                case "type" -> expenseService.retypeExpenses(user, ids,
+                        bulkTarget(Expense.TransactionType.class, "newType", newType));
+                default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown bulk action: " + action);
+            }
         }
 
         return "redirect:/dashboard";
     }
 
-    @GetMapping("/expense/edit/{id}")
-    public String editExpense(@PathVariable Long id, Model model, Authentication authentication) {
-        User user = userRepository.findByUsername(authentication.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    /**
+     * The category or type a bulk update moves rows to; missing or unknown values are a 400
+     */
+    private static <E extends Enum<E>> E bulkTarget(Class<E> type, String parameter, String value) {
+        if (value == null || value.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, parameter + " is required");
+        }
+        try {
+            return Enum.valueOf(type, value);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown " + parameter + ": " + value);
+        }
+    }
 
+    @GetMapping("/expense/edit/{id}")
+    public String editExpense(@PathVariable Long id, Model model, @CurrentUser User user) {
         Expense expense = expenseService.getExpenseById(id);
 
         // Security check: ensure user can only edit their own expenses
@@ -174,25 +172,9 @@ public class ExpenseController {
 
     @PostMapping("/expense/update/{id}")
     public String updateExpense(@PathVariable Long id, @ModelAttribute Expense expenseDetails, 
-                                Authentication authentication) {
-        User user = userRepository.findByUsername(authentication.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        Expense expense = expenseService.getExpenseById(id);
-
-        // Security check
-        if (!expense.getUser().getId().equals(user.getId())) {
-            return "redirect:/dashboard";
-        }
-
-        expense.setDescription(expenseDetails.getDescription());
-        expense.setAmount(expenseDetails.getAmount());
-        expense.setType(expenseDetails.getType());
-        expense.setCategory(expenseDetails.getCategory());
-        expense.setDate(expenseDetails.getDate());
-        expense.setNotes(expenseDetails.getNotes());
-
-        expenseService.saveExpense(expense);
+                                @CurrentUser User user) {
+        // Owner-scoped: another user's id simply matches no row
+        expenseService.updateExpense(id, user, expenseDetails);
 
         return "redirect:/dashboard";
     }
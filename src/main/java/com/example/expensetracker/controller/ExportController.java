@@ -0,0 +1,62 @@
+package com.example.expensetracker.controller;
+
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.security.CurrentUser;
+import com.example.expensetracker.service.ExpenseExportService;
+import com.example.expensetracker.service.ExpenseFilter;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+@RestController
+public class ExportController {
+
+    private final ExpenseExportService expenseExportService;
+
+    public ExportController(ExpenseExportService expenseExportService) {
+        this.expenseExportService = expenseExportService;
+    }
+
+    /**
+     * Download the transactions matching the dashboard filter parameters as CSV or JSON;
+     * any other format, or an unknown type, category or malformed date, is a 400
+     */
+    @GetMapping("/api/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String period,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @CurrentUser User user) {
+
+        ExpenseExportService.Format exportFormat = ExpenseExportService.Format.fromRequest(format).orElse(null);
+        if (exportFormat == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        ExpenseFilter filter;
+        try {
+            filter = ExpenseFilter.fromRequest(search, type, category, period, startDate, endDate);
+        } catch (IllegalArgumentException | DateTimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        StreamingResponseBody body = output -> expenseExportService.export(user, filter, exportFormat, output);
+        String filename = "transactions-" + LocalDate.now() + "." + exportFormat.getExtension();
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.expensetracker.controller;
+
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.security.CurrentUser;
+import com.example.expensetracker.service.ExpenseImportService;
+import com.example.expensetracker.service.ImportStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.net.URI;
+
+@RestController
+public class ImportController {
+
+    private final ExpenseImportService expenseImportService;
+
+    public ImportController(ExpenseImportService expenseImportService) {
+        this.expenseImportService = expenseImportService;
+    }
+
+    /**
+     * Upload a CSV bank export; the import runs in the background
+     */
+    @PostMapping("/api/imports")
+    public ResponseEntity<ImportStatus> startImport(@RequestParam("file") MultipartFile file,
+                                                    @RequestParam(required = false) String dateFormat,
+                                                    @CurrentUser User user) {
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        ImportStatus status = expenseImportService.startImport(user, file, dateFormat);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/imports/" + status.id()))
+                .body(status);
+    }
+
+    /**
+     * Progress of one of the current user's imports
+     */
+    @GetMapping("/api/imports/{id}")
+    public ResponseEntity<ImportStatus> importStatus(@PathVariable String id, @CurrentUser User user) {
+        return ResponseEntity.of(expenseImportService.getStatus(user, id));
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.expensetracker.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+/**
+ * A requested account deletion and how far it has got. Progress is advanced in the
+ * same transaction as each deleted chunk, so an interrupted deletion resumes where it stopped.
+ * The row outlives the user as a record of the completed deletion.
+ */
+@Entity
+@Table(name = "account_deletions")
+@Getter
+@Setter
+public class AccountDeletion {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private String username;
+
+    @Column(nullable = false)
+    private long expensesTotal;
+
+    @Column(nullable = false)
+    private long expensesDeleted;
+
+    @Column(nullable = false)
+    private LocalDateTime requestedAt;
+
+    private LocalDateTime completedAt;
+
+    public AccountDeletion() {
+    }
+
+    public AccountDeletion(Long userId, String username, long expensesTotal, LocalDateTime requestedAt) {
+        this.userId = userId;
+        this.username = username;
+        this.expensesTotal = expensesTotal;
+        this.requestedAt = requestedAt;
+    }
+}
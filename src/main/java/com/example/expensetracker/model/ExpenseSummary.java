@@ -0,0 +1,34 @@
+package com.example.expensetracker.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Aggregated totals for a user's transactions.
+ * firstDate and lastDate are null when the user has no transactions.
+ */
+public record ExpenseSummary(BigDecimal totalIncome,
+                             BigDecimal totalExpenses,
+                             long transactionCount,
+                             LocalDate firstDate,
+                             LocalDate lastDate) {
+
+    public ExpenseSummary {
+        totalIncome = totalIncome != null ? totalIncome : BigDecimal.ZERO;
+        totalExpenses = totalExpenses != null ? totalExpenses : BigDecimal.ZERO;
+    }
+
+    /**
+     * Summary of a user with no transactions
+     */
+    public static ExpenseSummary empty() {
+        return new ExpenseSummary(BigDecimal.ZERO, BigDecimal.ZERO, 0, null, null);
+    }
+
+    /**
+     * Balance (income - expenses)
+     */
+    public BigDecimal balance() {
+        return totalIncome.subtract(totalExpenses);
+    }
+}
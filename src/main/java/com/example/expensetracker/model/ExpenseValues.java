@@ -0,0 +1,36 @@
+package com.example.expensetracker.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Detached copy of an expense's fields, taken before or after a write.
+ * Lets change listeners compare old and new values after the entity has been mutated.
+ */
+public record ExpenseValues(Long id,
+                            Long userId,
+                            Expense.TransactionType type,
+                            Expense.Category category,
+                            BigDecimal amount,
+                            LocalDate date,
+                            String description,
+                            String notes) {
+
+    public static ExpenseValues of(Expense expense) {
+        return new ExpenseValues(expense.getId(),
+                expense.getUser().getId(),
+                expense.getType(),
+                expense.getCategory(),
+                expense.getAmount(),
+                expense.getDate(),
+                expense.getDescription(),
+                expense.getNotes());
+    }
+
+    /**
+     * Amount counted toward the given type's total: the amount if this row has that type, else zero
+     */
+    public BigDecimal amountFor(Expense.TransactionType column) {
+        return type == column && amount != null ? amount : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.expensetracker.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Conversions between BigDecimal amounts (scale 2) and a long count of cents.
+ * Lets hot loops accumulate totals in a primitive long, with Math.addExact throwing on
+ * overflow instead of wrapping; convert back to BigDecimal only for output.
+ */
+public final class Money {
+
+    public static final int SCALE = 2;
+
+    private Money() {
+    }
+
+    /**
+     * Cents in an amount with at most two decimal places.
+     * Throws ArithmeticException if it has finer precision or does not fit in a long.
+     */
+    public static long toCents(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.expensetracker.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import java.math.BigDecimal;
+
+/**
+ * Total and count of one user's transactions for a (year, month, type, category) bucket.
+ * Maintained on every expense write so monthly views never scan raw rows.
+ */
+@Entity
+@Table(name = "monthly_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_monthly_rollup_bucket",
+                columnNames = {"user_id", "rollup_year", "rollup_month", "type", "category"}))
+@Getter
+@Setter
+public class MonthlyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "monthly_rollups_seq")
+    @SequenceGenerator(name = "monthly_rollups_seq", sequenceName = "monthly_rollups_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "rollup_year", nullable = false)
+    private int year;
+
+    @Column(name = "rollup_month", nullable = false)
+    private int month;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Expense.TransactionType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Expense.Category category;
+
+    @Column(nullable = false)
+    private BigDecimal total = BigDecimal.ZERO;
+
+    @Column(nullable = false)
+    private long transactionCount;
+
+    public MonthlyRollup() {
+    }
+
+    public MonthlyRollup(Long userId, int year, int month, Expense.TransactionType type,
+                         Expense.Category category, BigDecimal total, long transactionCount) {
+        this.userId = userId;
+        this.year = year;
+        this.month = month;
+        this.type = type;
+        this.category = category;
+        this.total = total;
+        this.transactionCount = transactionCount;
+    }
+}
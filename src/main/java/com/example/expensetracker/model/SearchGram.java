@@ -0,0 +1,90 @@
+package com.example.expensetracker.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * One posting of the transaction search index: expense expenseId contains gram.
+ * weight is 2 for a description hit, 1 for a notes hit, 3 for both.
+ */
+@Entity
+@Table(name = "search_grams", indexes = {
+        @Index(name = "idx_search_grams_user_gram", columnList = "user_id, gram, expense_id")
+})
+@IdClass(SearchGram.Key.class)
+@Getter
+@Setter
+public class SearchGram implements Persistable<SearchGram.Key> {
+
+    @Id
+    @Column(name = "expense_id")
+    private Long expenseId;
+
+    @Id
+    @Column(length = 3)
+    private String gram;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private int weight;
+
+    public SearchGram() {
+    }
+
+    public SearchGram(Long expenseId, String gram, Long userId, int weight) {
+        this.expenseId = expenseId;
+        this.gram = gram;
+        this.userId = userId;
+        this.weight = weight;
+    }
+
+    @Override
+    public Key getId() {
+        return new Key(expenseId, gram);
+    }
+
+    /**
+     * Postings are only ever inserted or bulk-deleted, so skip the merge lookup on save
+     */
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+
+    public static class Key implements Serializable {
+
+        private Long expenseId;
+        private String gram;
+
+        public Key() {
+        }
+
+        public Key(Long expenseId, String gram) {
+            this.expenseId = expenseId;
+            this.gram = gram;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key other)) {
+                return false;
+            }
+            return Objects.equals(expenseId, other.expenseId) && Objects.equals(gram, other.gram);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(expenseId, gram);
+        }
+    }
+}
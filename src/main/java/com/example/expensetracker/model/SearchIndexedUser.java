@@ -0,0 +1,32 @@
+package com.example.expensetracker.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+/**
+ * Marks a user whose transactions are fully covered by the search index.
+ * Until a user has a row here, searches fall back to scanning with LIKE.
+ */
+@Entity
+@Table(name = "search_indexed_users")
+@Getter
+@Setter
+public class SearchIndexedUser {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private LocalDateTime indexedAt;
+
+    public SearchIndexedUser() {
+    }
+
+    public SearchIndexedUser(Long userId, LocalDateTime indexedAt) {
+        this.userId = userId;
+        this.indexedAt = indexedAt;
+    }
+}
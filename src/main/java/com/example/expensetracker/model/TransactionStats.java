@@ -0,0 +1,25 @@
+package com.example.expensetracker.model;
+
+import java.util.Map;
+
+/**
+ * Transaction counts for a user: overall, per type and per category.
+ * Types and categories with no transactions map to 0.
+ */
+public record TransactionStats(long total,
+                               Map<Expense.TransactionType, Long> byType,
+                               Map<Expense.Category, Long> byCategory) {
+
+    public TransactionStats {
+        byType = Map.copyOf(byType);
+        byCategory = Map.copyOf(byCategory);
+    }
+
+    public long count(Expense.TransactionType type) {
+        return byType.getOrDefault(type, 0L);
+    }
+
+    public long count(Expense.Category category) {
+        return byCategory.getOrDefault(category, 0L);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.expensetracker.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Running totals for one user, kept in step with every expense write.
+ * Lets the dashboard read totals by primary key instead of scanning the expenses table.
+ */
+@Entity
+@Table(name = "user_balances")
+@Getter
+@Setter
+public class UserBalance {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private BigDecimal totalIncome = BigDecimal.ZERO;
+
+    @Column(nullable = false)
+    private BigDecimal totalExpenses = BigDecimal.ZERO;
+
+    @Column(nullable = false)
+    private long transactionCount;
+
+    private LocalDate firstDate;
+
+    private LocalDate lastDate;
+
+    public UserBalance() {
+    }
+
+    public UserBalance(Long userId) {
+        this.userId = userId;
+    }
+
+    public ExpenseSummary toSummary() {
+        return new ExpenseSummary(totalIncome, totalExpenses, transactionCount, firstDate, lastDate);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.expensetracker.repository;
+
+import com.example.expensetracker.model.AccountDeletion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AccountDeletionRepository extends JpaRepository<AccountDeletion, Long> {
+
+    /**
+     * Ids of users whose deletion was requested but has not completed
+     */
+    @Query("SELECT d.userId FROM AccountDeletion d WHERE d.completedAt IS NULL ORDER BY d.requestedAt")
+    List<Long> findPendingUserIds();
+
+    /**
+     * Record another chunk of deleted expenses
+     */
+    @Modifying
+    @Query("UPDATE AccountDeletion d SET d.expensesDeleted = d.expensesDeleted + :count WHERE d.userId = :userId")
+    int addDeleted(@Param("userId") Long userId, @Param("count") long count);
+}
@@ -0,0 +1,33 @@
+package com.example.expensetracker.repository;
+
+import com.example.expensetracker.model.Expense;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * GROUP BY sums over expenses restricted by an arbitrary Specification.
+ * Rows are returned as Object[] with the grouping keys first and the summed amount last.
+ */
+public interface ExpenseAggregationRepository {
+
+    /**
+     * Rows of [category, sum]
+     */
+    List<Object[]> sumByCategory(Specification<Expense> spec);
+
+    /**
+     * Rows of [type, sum]
+     */
+    List<Object[]> sumByType(Specification<Expense> spec);
+
+    /**
+     * Rows of [year, month, type, sum]
+     */
+    List<Object[]> sumByMonth(Specification<Expense> spec);
+
+    /**
+     * Rows of [date, type, sum]
+     */
+    List<Object[]> sumByDay(Specification<Expense> spec);
+}
@@ -0,0 +1,70 @@
+package com.example.expensetracker.repository;
+
+import com.example.expensetracker.model.Expense;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+class ExpenseAggregationRepositoryImpl implements ExpenseAggregationRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Object[]> sumByCategory(Specification<Expense> spec) {
+        return sumGroupedBy(spec, (root, cb) -> List.of(root.get("category")));
+    }
+
+    @Override
+    public List<Object[]> sumByType(Specification<Expense> spec) {
+        return sumGroupedBy(spec, (root, cb) -> List.of(root.get("type")));
+    }
+
+    @Override
+    public List<Object[]> sumByMonth(Specification<Expense> spec) {
+        return sumGroupedBy(spec, (root, cb) -> List.of(
+                cb.function("year", Integer.class, root.get("date")),
+                cb.function("month", Integer.class, root.get("date")),
+                root.get("type")));
+    }
+
+    @Override
+    public List<Object[]> sumByDay(Specification<Expense> spec) {
+        return sumGroupedBy(spec, (root, cb) -> List.of(root.get("date"), root.get("type")));
+    }
+
+    /**
+     * SELECT keys..., SUM(amount) FROM expenses WHERE spec GROUP BY keys...
+     */
+    private List<Object[]> sumGroupedBy(Specification<Expense> spec,
+                                        BiFunction<Root<Expense>, CriteriaBuilder, List<Expression<?>>> keys) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Expense> root = query.from(Expense.class);
+
+        List<Expression<?>> groupBy = keys.apply(root, cb);
+        List<Selection<?>> selections = new ArrayList<>(groupBy);
+        selections.add(cb.sum(root.<BigDecimal>get("amount")));
+
+        query.select(cb.tuple(selections))
+                .where(spec.toPredicate(root, query, cb))
+                .groupBy(groupBy);
+
+        List<Object[]> rows = new ArrayList<>();
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            rows.add(tuple.toArray());
+        }
+        return rows;
+    }
+}
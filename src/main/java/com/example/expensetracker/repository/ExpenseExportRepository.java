@@ -0,0 +1,20 @@
+package com.example.expensetracker.repository;
+
+import com.example.expensetracker.model.Expense;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.stream.Stream;
+
+/**
+ * Forward-only scan of the expenses matching a Specification, for exports.
+ */
+public interface ExpenseExportRepository {
+
+    /**
+     * Rows of [date, description, amount, type, category, notes] in keyset order
+     * (newest first), fetched from the driver fetchSize rows at a time. Scalar columns
+     * only, so nothing accumulates in the persistence context. Must be consumed and
+     * closed inside a transaction.
+     */
+    Stream<Object[]> streamExportColumns(Specification<Expense> spec, int fetchSize);
+}
@@ -1,18 +1,48 @@
 package com.example.expensetracker.repository;
 
 import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.ExpenseSummary;
+import com.example.expensetracker.model.ExpenseValues;
+import com.example.expensetracker.model.MonthlyRollup;
 import com.example.expensetracker.model.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ExpenseRepository extends JpaRepository<Expense, Long> {
+public interface ExpenseRepository extends JpaRepository<Expense, Long>, JpaSpecificationExecutor<Expense>,
+        ExpenseAggregationRepository, ExpenseExportRepository, ExpenseSelectionRepository {
+
+    /**
+     * Stable ordering used for keyset pagination; id breaks ties between equal dates
+     */
+    Sort KEYSET_ORDER = Sort.by(Sort.Direction.DESC, "date").and(Sort.by(Sort.Direction.DESC, "id"));
+
+    /**
+     * Find up to {@code limit} expenses matching the spec that come after (afterDate, afterId)
+     * in KEYSET_ORDER. Pass a null afterDate for the first page.
+     * Uses a seek predicate instead of OFFSET, so the cost does not grow with page depth.
+     */
+    default List<Expense> findKeysetPage(Specification<Expense> spec, LocalDate afterDate, Long afterId, int limit) {
+        Specification<Expense> seek = afterDate == null
+                ? spec
+                : spec.and(ExpenseSpecifications.seekAfter(afterDate, afterId));
+        return findBy(seek, query -> query.sortBy(KEYSET_ORDER).limit(limit).all());
+    }
 
     /**
      * Find all expenses for a specific user, ordered by date descending (most recent first)
@@ -43,6 +73,35 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
     @Query("SELECT COALESCE(SUM(e.amount), 0) FROM Expense e WHERE e.user = :user AND e.type = 'EXPENSE'")
     BigDecimal calculateTotalExpenses(@Param("user") User user);
 
+    /**
+     * Calculate income, expenses, count and date range for a user in a single scan
+     * using conditional aggregation (SUM over CASE per type)
+     */
+    @Query("SELECT new com.example.expensetracker.model.ExpenseSummary("
+            + "COALESCE(SUM(CASE WHEN e.type = 'INCOME' THEN e.amount END), 0), "
+            + "COALESCE(SUM(CASE WHEN e.type = 'EXPENSE' THEN e.amount END), 0), "
+            + "COUNT(e), MIN(e.date), MAX(e.date)) "
+            + "FROM Expense e WHERE e.user = :user")
+    ExpenseSummary summarize(@Param("user") User user);
+
+    /**
+     * Group a user's expenses into (year, month, type, category) buckets.
+     * Used to rebuild the monthly_rollups table from scratch.
+     */
+    @Query("SELECT new com.example.expensetracker.model.MonthlyRollup("
+            + "e.user.id, YEAR(e.date), MONTH(e.date), e.type, e.category, SUM(e.amount), COUNT(e)) "
+            + "FROM Expense e WHERE e.user = :user "
+            + "GROUP BY e.user.id, YEAR(e.date), MONTH(e.date), e.type, e.category")
+    List<MonthlyRollup> summarizeByMonth(@Param("user") User user);
+
+    /**
+     * Scalar columns of a user's whole ledger in keyset order, without creating entities.
+     * Rows are [id, date, amount, type, category, description].
+     */
+    @Query("SELECT e.id, e.date, e.amount, e.type, e.category, e.description FROM Expense e "
+            + "WHERE e.user = :user ORDER BY e.date DESC, e.id DESC")
+    List<Object[]> findLedgerColumns(@Param("user") User user);
+
     /**
      * Find expenses by category for a user
      */
@@ -93,6 +152,11 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
      */
     long countByUserAndType(User user, Expense.TransactionType type);
 
+    /**
+     * Count expenses between two dates (inclusive) for a user
+     */
+    long countByUserAndDateBetween(User user, LocalDate startDate, LocalDate endDate);
+
     /**
      * Find the most recent N expenses for a user
      */
@@ -105,30 +169,147 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
     BigDecimal calculateTotalByCategory(@Param("user") User user, @Param("category") Expense.Category category);
 
     /**
-     * Find expenses for current month
+     * Find expenses in [start, end) for a user, most recent first.
+     * A plain range on date, so the (user_id, date) index can be used.
      */
-    @Query("SELECT e FROM Expense e WHERE e.user = :user AND YEAR(e.date) = :year AND MONTH(e.date) = :month ORDER BY e.date DESC")
-    List<Expense> findByUserAndMonth(@Param("user") User user, @Param("year") int year, @Param("month") int month);
+    @Query("SELECT e FROM Expense e WHERE e.user = :user AND e.date >= :start AND e.date < :end ORDER BY e.date DESC")
+    List<Expense> findByUserAndDateRange(@Param("user") User user,
+                                         @Param("start") LocalDate start,
+                                         @Param("end") LocalDate end);
+
+    /**
+     * Sum of one transaction type in [start, end) for a user
+     * Uses COALESCE to return 0 if no records found
+     */
+    @Query("SELECT COALESCE(SUM(e.amount), 0) FROM Expense e WHERE e.user = :user AND e.type = :type "
+            + "AND e.date >= :start AND e.date < :end")
+    BigDecimal calculateTotalByTypeAndDateRange(@Param("user") User user,
+                                                @Param("type") Expense.TransactionType type,
+                                                @Param("start") LocalDate start,
+                                                @Param("end") LocalDate end);
+
+    /**
+     * Find expenses for a given month
+     */
+    default List<Expense> findByUserAndMonth(User user, int year, int month) {
+        LocalDate firstDay = LocalDate.of(year, month, 1);
+        return findByUserAndDateRange(user, firstDay, firstDay.plusMonths(1));
+    }
 
     /**
      * Calculate monthly income
      */
-    @Query("SELECT COALESCE(SUM(e.amount), 0) FROM Expense e WHERE e.user = :user AND e.type = 'INCOME' AND YEAR(e.date) = :year AND MONTH(e.date) = :month")
-    BigDecimal calculateMonthlyIncome(@Param("user") User user, @Param("year") int year, @Param("month") int month);
+    default BigDecimal calculateMonthlyIncome(User user, int year, int month) {
+        LocalDate firstDay = LocalDate.of(year, month, 1);
+        return calculateTotalByTypeAndDateRange(user, Expense.TransactionType.INCOME, firstDay, firstDay.plusMonths(1));
+    }
 
     /**
      * Calculate monthly expenses
      */
-    @Query("SELECT COALESCE(SUM(e.amount), 0) FROM Expense e WHERE e.user = :user AND e.type = 'EXPENSE' AND YEAR(e.date) = :year AND MONTH(e.date) = :month")
-    BigDecimal calculateMonthlyExpenses(@Param("user") User user, @Param("year") int year, @Param("month") int month);
+    default BigDecimal calculateMonthlyExpenses(User user, int year, int month) {
+        LocalDate firstDay = LocalDate.of(year, month, 1);
+        return calculateTotalByTypeAndDateRange(user, Expense.TransactionType.EXPENSE, firstDay, firstDay.plusMonths(1));
+    }
+
+    /**
+     * Delete all expenses for a user in a single statement; returns the rows deleted.
+     * Meant for small ledgers or remainders: whole accounts go through AccountDeletionService,
+     * which deletes in chunks instead of holding one long transaction.
+     */
+    @Modifying
+    @Query("DELETE FROM Expense e WHERE e.user = :user")
+    int deleteByUser(@Param("user") User user);
 
     /**
-     * Delete all expenses for a user
+     * Ids of a user's oldest expenses, read in (user_id, date) index order.
+     * Used to delete an account chunk by chunk without scanning the whole ledger each time.
      */
-    void deleteByUser(User user);
+    @Query("SELECT e.id FROM Expense e WHERE e.user.id = :userId ORDER BY e.date")
+    List<Long> findOldestIds(@Param("userId") Long userId, Limit limit);
 
     /**
      * Check if user has any expenses
      */
     boolean existsByUser(User user);
-}
\ No newline at end of file
+
+    /**
+     * Field values of one of the user's expenses, row-locked (SELECT ... FOR UPDATE) until the
+     * transaction ends, so a concurrent update cannot change them before this one's write.
+     * Read as a projection, so no managed entity is left behind to go stale after the
+     * owner-scoped UPDATE or DELETE below. Empty if the expense does not exist or belongs
+     * to someone else, so this doubles as the ownership check in front of those writes.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.example.expensetracker.model.ExpenseValues("
+            + "e.id, e.user.id, e.type, e.category, e.amount, e.date, e.description, e.notes) "
+            + "FROM Expense e WHERE e.id = :id AND e.user.id = :userId")
+    Optional<ExpenseValues> findOwnedValues(@Param("id") Long id, @Param("userId") Long userId);
+
+    /**
+     * Delete one of the user's expenses in a single statement; returns the rows deleted (0 or 1)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Expense e WHERE e.id = :id AND e.user.id = :userId")
+    int deleteOwned(@Param("id") Long id, @Param("userId") Long userId);
+
+    /**
+     * Overwrite the editable fields of one of the user's expenses in a single statement;
+     * returns the rows updated (0 or 1)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Expense e SET e.description = :description, e.amount = :amount, e.type = :type, "
+            + "e.category = :category, e.date = :date, e.notes = :notes "
+            + "WHERE e.id = :id AND e.user.id = :userId")
+    int updateOwned(@Param("id") Long id,
+                    @Param("userId") Long userId,
+                    @Param("description") String description,
+                    @Param("amount") BigDecimal amount,
+                    @Param("type") Expense.TransactionType type,
+                    @Param("category") Expense.Category category,
+                    @Param("date") LocalDate date,
+                    @Param("notes") String notes);
+
+    /**
+     * Those of the given ids that belong to the user, in ascending order, row-locked
+     * (SELECT ... FOR UPDATE) until the transaction ends
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e.id FROM Expense e WHERE e.user.id = :userId AND e.id IN :ids ORDER BY e.id")
+    List<Long> lockOwnedIds(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    /**
+     * Group the given ids, restricted to the user's own rows, into (year, month, type, category)
+     * buckets. Read before a bulk write to know what it is about to change.
+     */
+    @Query("SELECT new com.example.expensetracker.model.MonthlyRollup("
+            + "e.user.id, YEAR(e.date), MONTH(e.date), e.type, e.category, SUM(e.amount), COUNT(e)) "
+            + "FROM Expense e WHERE e.user.id = :userId AND e.id IN :ids "
+            + "GROUP BY e.user.id, YEAR(e.date), MONTH(e.date), e.type, e.category")
+    List<MonthlyRollup> summarizeOwnedByMonth(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    /**
+     * Delete those of the given ids that belong to the user in a single statement; returns the rows deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Expense e WHERE e.user.id = :userId AND e.id IN :ids")
+    int deleteAllOwned(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    /**
+     * Set the category of those of the given ids that belong to the user; returns the rows updated
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Expense e SET e.category = :category WHERE e.user.id = :userId AND e.id IN :ids")
+    int updateCategoryOwned(@Param("userId") Long userId,
+                            @Param("ids") Collection<Long> ids,
+                            @Param("category") Expense.Category category);
+
+    /**
+     * Set the type of those of the given ids that belong to the user; returns the rows updated
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Expense e SET e.type = :type WHERE e.user.id = :userId AND e.id IN :ids")
+    int updateTypeOwned(@Param("userId") Long userId,
+                        @Param("ids") Collection<Long> ids,
+                        @Param("type") Expense.TransactionType type);
+}
@@ -0,0 +1,43 @@
+package com.example.expensetracker.repository;
+
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.MonthlyRollup;
+import org.springframework.data.jpa.domain.PredicateSpecification;
+
+import java.util.List;
+
+/**
+ * Set-based reads and writes over the rows a dashboard filter matches, so a bulk action
+ * addresses the same rows as the filter without shipping their ids back and forth.
+ * Takes PredicateSpecifications, which apply to DELETE and UPDATE as well as SELECT.
+ * The writes flush pending changes first and clear the persistence context afterwards,
+ * like the owner-scoped @Modifying queries.
+ */
+public interface ExpenseSelectionRepository {
+
+    /**
+     * Ids of the matching expenses in ascending id order, row-locked (SELECT ... FOR UPDATE)
+     * until the transaction ends
+     */
+    List<Long> findIdsForUpdate(PredicateSpecification<Expense> spec);
+
+    /**
+     * Group the matching expenses into (year, month, type, category) buckets
+     */
+    List<MonthlyRollup> summarizeByMonth(PredicateSpecification<Expense> spec);
+
+    /**
+     * Delete the matching expenses in a single statement; returns the rows deleted
+     */
+    int deleteMatching(PredicateSpecification<Expense> spec);
+
+    /**
+     * Set the category of the matching expenses in a single statement; returns the rows updated
+     */
+    int updateCategoryMatching(PredicateSpecification<Expense> spec, Expense.Category category);
+
+    /**
+     * Set the type of the matching expenses in a single statement; returns the rows updated
+     */
+    int updateTypeMatching(PredicateSpecification<Expense> spec, Expense.TransactionType type);
+}
@@ -0,0 +1,91 @@
+package com.example.expensetracker.repository;
+
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.MonthlyRollup;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaDelete;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.PredicateSpecification;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+class ExpenseSelectionRepositoryImpl implements ExpenseSelectionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> findIdsForUpdate(PredicateSpecification<Expense> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Expense> root = query.from(Expense.class);
+
+        query.select(root.<Long>get("id"))
+                .where(spec.toPredicate(root, cb))
+                .orderBy(cb.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+    }
+
+    @Override
+    public List<MonthlyRollup> summarizeByMonth(PredicateSpecification<Expense> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<MonthlyRollup> query = cb.createQuery(MonthlyRollup.class);
+        Root<Expense> root = query.from(Expense.class);
+
+        Expression<Long> userId = root.get("user").get("id");
+        Expression<Integer> year = cb.function("year", Integer.class, root.get("date"));
+        Expression<Integer> month = cb.function("month", Integer.class, root.get("date"));
+        query.select(cb.construct(MonthlyRollup.class, userId, year, month, root.get("type"), root.get("category"),
+                        cb.sum(root.<BigDecimal>get("amount")), cb.count(root)))
+                .where(spec.toPredicate(root, cb))
+                .groupBy(userId, year, month, root.get("type"), root.get("category"));
+
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public int deleteMatching(PredicateSpecification<Expense> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaDelete<Expense> delete = cb.createCriteriaDelete(Expense.class);
+        Root<Expense> root = delete.from(Expense.class);
+        delete.where(spec.toPredicate(root, cb));
+
+        entityManager.flush();
+        int deleted = entityManager.createQuery(delete).executeUpdate();
+        entityManager.clear();
+        return deleted;
+    }
+
+    @Override
+    public int updateCategoryMatching(PredicateSpecification<Expense> spec, Expense.Category category) {
+        return updateMatching(spec, "category", category);
+    }
+
+    @Override
+    public int updateTypeMatching(PredicateSpecification<Expense> spec, Expense.TransactionType type) {
+        return updateMatching(spec, "type", type);
+    }
+
+    private int updateMatching(PredicateSpecification<Expense> spec, String attribute, Object value) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Expense> update = cb.createCriteriaUpdate(Expense.class);
+        Root<Expense> root = update.from(Expense.class);
+        update.set(attribute, value)
+                .where(spec.toPredicate(root, cb));
+
+        entityManager.flush();
+        int updated = entityManager.createQuery(update).executeUpdate();
+        entityManager.clear();
+        return updated;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.expensetracker.repository;
+
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.SearchGram;
+import com.example.expensetracker.model.SearchIndexedUser;
+import com.example.expensetracker.model.User;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.PredicateSpecification;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Reusable JPA Specifications for querying expenses.
+ * Each one contributes a single predicate, so combining them with {@code and}
+ * produces one WHERE clause that is evaluated by the database. Those that need no
+ * subquery are PredicateSpecifications, so set-based DELETE and UPDATE can use them too.
+ */
+public final class ExpenseSpecifications {
+
+    private ExpenseSpecifications() {
+    }
+
+    /**
+     * Restrict to expenses owned by the given user
+     */
+    public static PredicateSpecification<Expense> belongsTo(User user) {
+        return (root, cb) -> cb.equal(root.get("user"), user);
+    }
+
+    /**
+     * Case-insensitive partial match on the description
+     */
+    public static PredicateSpecification<Expense> descriptionContains(String keyword) {
+        String pattern = "%" + escapeLike(keyword.toLowerCase()) + "%";
+        return (root, cb) -> cb.like(cb.lower(root.get("description")), pattern, '\\');
+    }
+
+    /**
+     * Case-insensitive partial match on the description or the notes
+     */
+    public static Specification<Expense> textContains(String keyword) {
+        String pattern = "%" + escapeLike(keyword.toLowerCase()) + "%";
+        return (root, query, cb) -> cb.or(
+                cb.like(cb.lower(root.get("description")), pattern, '\\'),
+                cb.like(cb.lower(root.get("notes")), pattern, '\\'));
+    }
+
+    /**
+     * Restrict to expenses whose search index postings contain every gram.
+     * Users not yet covered by the index are not restricted, so callers must
+     * combine this with an exact predicate such as descriptionContains.
+     */
+    public static Specification<Expense> searchIndexContains(Long userId, Collection<String> grams) {
+        return (root, query, cb) -> {
+            Subquery<Long> postings = query.subquery(Long.class);
+            Root<SearchGram> gram = postings.from(SearchGram.class);
+            postings.select(gram.get("expenseId"))
+                    .where(cb.equal(gram.get("userId"), userId), gram.get("gram").in(grams))
+                    .groupBy(gram.get("expenseId"))
+                    .having(cb.equal(cb.count(gram), (long) grams.size()));
+
+            Subquery<Long> indexed = query.subquery(Long.class);
+            Root<SearchIndexedUser> marker = indexed.from(SearchIndexedUser.class);
+            indexed.select(marker.get("userId"))
+                    .where(cb.equal(marker.get("userId"), userId));
+
+            return cb.or(root.get("id").in(postings), cb.not(cb.exists(indexed)));
+        };
+    }
+
+    /**
+     * Restrict to a transaction type (INCOME or EXPENSE)
+     */
+    public static PredicateSpecification<Expense> hasType(Expense.TransactionType type) {
+        return (root, cb) -> cb.equal(root.get("type"), type);
+    }
+
+    /**
+     * Restrict to a category
+     */
+    public static PredicateSpecification<Expense> hasCategory(Expense.Category category) {
+        return (root, cb) -> cb.equal(root.get("category"), category);
+    }
+
+    /**
+     * Restrict to dates between start and end (both inclusive)
+     */
+    public static PredicateSpecification<Expense> dateBetween(LocalDate start, LocalDate end) {
+        return (root, cb) -> cb.between(root.get("date"), start, end);
+    }
+
+    /**
+     * Keyset predicate: rows strictly after (date, id) in (date DESC, id DESC) order
+     */
+    public static Specification<Expense> seekAfter(LocalDate date, Long id) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("date"), date),
+                cb.and(cb.equal(root.get("date"), date), cb.lessThan(root.get("id"), id)));
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
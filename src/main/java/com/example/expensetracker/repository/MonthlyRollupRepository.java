@@ -0,0 +1,119 @@
+package com.example.expensetracker.repository;
+
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.MonthlyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface MonthlyRollupRepository extends JpaRepository<MonthlyRollup, Long> {
+
+    /**
+     * All non-empty buckets for a user in chronological order (monthly trend)
+     */
+    @Query("SELECT r FROM MonthlyRollup r WHERE r.userId = :userId AND r.transactionCount > 0 "
+            + "ORDER BY r.year, r.month")
+    List<MonthlyRollup> findByUserId(@Param("userId") Long userId);
+
+    /**
+     * Non-empty buckets for a user within one month
+     */
+    @Query("SELECT r FROM MonthlyRollup r WHERE r.userId = :userId AND r.year = :year AND r.month = :month "
+            + "AND r.transactionCount > 0")
+    List<MonthlyRollup> findByUserIdAndMonth(@Param("userId") Long userId,
+                                             @Param("year") int year,
+                                             @Param("month") int month);
+
+    /**
+     * Total for one type within one month
+     * Uses COALESCE to return 0 if no records found
+     */
+    @Query("SELECT COALESCE(SUM(r.total), 0) FROM MonthlyRollup r "
+            + "WHERE r.userId = :userId AND r.year = :year AND r.month = :month AND r.type = :type")
+    BigDecimal sumByUserIdAndMonthAndType(@Param("userId") Long userId,
+                                          @Param("year") int year,
+                                          @Param("month") int month,
+                                          @Param("type") Expense.TransactionType type);
+
+    /**
+     * Total per category for one type, as [category, sum] rows
+     */
+    @Query("SELECT r.category, SUM(r.total) FROM MonthlyRollup r WHERE r.userId = :userId AND r.type = :type "
+            + "GROUP BY r.category")
+    List<Object[]> sumByCategory(@Param("userId") Long userId, @Param("type") Expense.TransactionType type);
+
+    /**
+     * Total per month and type, as [year, month, type, sum] rows
+     */
+    @Query("SELECT r.year, r.month, r.type, SUM(r.total) FROM MonthlyRollup r WHERE r.userId = :userId "
+            + "GROUP BY r.year, r.month, r.type")
+    List<Object[]> sumByMonth(@Param("userId") Long userId);
+
+    /**
+     * Transaction count per type, as [type, count] rows
+     */
+    @Query("SELECT r.type, SUM(r.transactionCount) FROM MonthlyRollup r WHERE r.userId = :userId GROUP BY r.type")
+    List<Object[]> countByType(@Param("userId") Long userId);
+
+    /**
+     * Transaction count per category, as [category, count] rows
+     */
+    @Query("SELECT r.category, SUM(r.transactionCount) FROM MonthlyRollup r WHERE r.userId = :userId "
+            + "GROUP BY r.category")
+    List<Object[]> countByCategory(@Param("userId") Long userId);
+
+    /**
+     * Transaction count within one month
+     */
+    @Query("SELECT COALESCE(SUM(r.transactionCount), 0) FROM MonthlyRollup r "
+            + "WHERE r.userId = :userId AND r.year = :year AND r.month = :month")
+    long countByUserIdAndMonth(@Param("userId") Long userId,
+                               @Param("year") int year,
+                               @Param("month") int month);
+
+    /**
+     * Add signed deltas to one bucket. Returns 0 when the bucket does not exist yet.
+     */
+    @Modifying
+    @Query("UPDATE MonthlyRollup r SET r.total = r.total + :amount, "
+            + "r.transactionCount = r.transactionCount + :count "
+            + "WHERE r.userId = :userId AND r.year = :year AND r.month = :month "
+            + "AND r.type = :type AND r.category = :category")
+    int addToBucket(@Param("userId") Long userId,
+                    @Param("year") int year,
+                    @Param("month") int month,
+                    @Param("type") Expense.TransactionType type,
+                    @Param("category") Expense.Category category,
+                    @Param("amount") BigDecimal amount,
+                    @Param("count") long count);
+
+    /**
+     * Create a bucket holding the deltas, or add them to it if a concurrent writer created
+     * the bucket first. Hibernate fills in the id from the entity's sequence.
+     */
+    @Modifying
+    @Query("INSERT INTO MonthlyRollup (userId, year, month, type, category, total, transactionCount) "
+            + "VALUES (:userId, :year, :month, :type, :category, :amount, :count) "
+            + "ON CONFLICT (userId, year, month, type, category) DO UPDATE "
+            + "SET total = total + excluded.total, transactionCount = transactionCount + excluded.transactionCount")
+    int upsertBucket(@Param("userId") Long userId,
+                     @Param("year") int year,
+                     @Param("month") int month,
+                     @Param("type") Expense.TransactionType type,
+                     @Param("category") Expense.Category category,
+                     @Param("amount") BigDecimal amount,
+                     @Param("count") long count);
+
+    /**
+     * Delete all buckets for a user
+     */
+    @Modifying
+    @Query("DELETE FROM MonthlyRollup r WHERE r.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
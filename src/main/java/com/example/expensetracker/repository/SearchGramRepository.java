@@ -0,0 +1,57 @@
+package com.example.expensetracker.repository;
+
+import com.example.expensetracker.model.SearchGram;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SearchGramRepository extends JpaRepository<SearchGram, SearchGram.Key> {
+
+    /**
+     * Ids of the user's expenses that contain every gram, best match first.
+     * gramCount must be the number of distinct grams passed in.
+     */
+    @Query("SELECT g.expenseId FROM SearchGram g WHERE g.userId = :userId AND g.gram IN :grams "
+            + "GROUP BY g.expenseId HAVING COUNT(g) = :gramCount "
+            + "ORDER BY SUM(g.weight) DESC, g.expenseId DESC")
+    List<Long> findRankedExpenseIds(@Param("userId") Long userId,
+                                    @Param("grams") Collection<String> grams,
+                                    @Param("gramCount") long gramCount,
+                                    Limit limit);
+
+    /**
+     * Remove the postings of one expense
+     */
+    @Modifying
+    @Query("DELETE FROM SearchGram g WHERE g.expenseId = :expenseId")
+    int deleteByExpenseId(@Param("expenseId") Long expenseId);
+
+    /**
+     * Remove the postings of several of a user's expenses
+     */
+    @Modifying
+    @Query("DELETE FROM SearchGram g WHERE g.userId = :userId AND g.expenseId IN :expenseIds")
+    int deleteByExpenseIds(@Param("userId") Long userId, @Param("expenseIds") Collection<Long> expenseIds);
+
+    /**
+     * Remove a user's postings whose expense no longer exists
+     */
+    @Modifying
+    @Query("DELETE FROM SearchGram g WHERE g.userId = :userId "
+            + "AND NOT EXISTS (SELECT e.id FROM Expense e WHERE e.id = g.expenseId)")
+    int deleteOrphans(@Param("userId") Long userId);
+
+    /**
+     * Remove all postings of a user
+     */
+    @Modifying
+    @Query("DELETE FROM SearchGram g WHERE g.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
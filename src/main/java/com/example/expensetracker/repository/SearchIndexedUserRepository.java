@@ -0,0 +1,9 @@
+package com.example.expensetracker.repository;
+
+import com.example.expensetracker.model.SearchIndexedUser;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SearchIndexedUserRepository extends JpaRepository<SearchIndexedUser, Long> {
+}
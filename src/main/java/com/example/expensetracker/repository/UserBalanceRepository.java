@@ -0,0 +1,92 @@
+package com.example.expensetracker.repository;
+
+import com.example.expensetracker.model.ExpenseSummary;
+import com.example.expensetracker.model.UserBalance;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface UserBalanceRepository extends JpaRepository<UserBalance, Long> {
+
+    /**
+     * Read the maintained totals for a user as a summary (primary key lookup)
+     */
+    @Query("SELECT new com.example.expensetracker.model.ExpenseSummary("
+            + "b.totalIncome, b.totalExpenses, b.transactionCount, b.firstDate, b.lastDate) "
+            + "FROM UserBalance b WHERE b.userId = :userId")
+    Optional<ExpenseSummary> findSummaryByUserId(@Param("userId") Long userId);
+
+    /**
+     * Lock the user's balance row (SELECT ... FOR UPDATE) until the transaction ends; empty if there is none
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b.userId FROM UserBalance b WHERE b.userId = :userId")
+    Optional<Long> lockByUserId(@Param("userId") Long userId);
+
+    /**
+     * Add signed deltas to the running totals.
+     * Done in the database so concurrent writers never lose an update.
+     * Returns 0 when the user has no balance row yet.
+     */
+    @Modifying
+    @Query("UPDATE UserBalance b SET b.totalIncome = b.totalIncome + :income, "
+            + "b.totalExpenses = b.totalExpenses + :expenses, "
+            + "b.transactionCount = b.transactionCount + :count "
+            + "WHERE b.userId = :userId")
+    int addToTotals(@Param("userId") Long userId,
+                    @Param("income") BigDecimal income,
+                    @Param("expenses") BigDecimal expenses,
+                    @Param("count") long count);
+
+    /**
+     * Create an all-zero balance row unless the user already has one. Returns 1 if this call
+     * created it. A concurrent caller waits for the creating transaction and then gets 0.
+     */
+    @Modifying
+    @Query("INSERT INTO UserBalance (userId, totalIncome, totalExpenses, transactionCount) "
+            + "VALUES (:userId, 0, 0, 0) ON CONFLICT DO NOTHING")
+    int insertIfAbsent(@Param("userId") Long userId);
+
+    /**
+     * Overwrite the totals and date range with freshly computed values
+     */
+    @Modifying
+    @Query("UPDATE UserBalance b SET b.totalIncome = :income, b.totalExpenses = :expenses, "
+            + "b.transactionCount = :count, b.firstDate = :firstDate, b.lastDate = :lastDate "
+            + "WHERE b.userId = :userId")
+    int replaceTotals(@Param("userId") Long userId,
+                      @Param("income") BigDecimal income,
+                      @Param("expenses") BigDecimal expenses,
+                      @Param("count") long count,
+                      @Param("firstDate") LocalDate firstDate,
+                      @Param("lastDate") LocalDate lastDate);
+
+    /**
+     * Widen the tracked date range to include the given date
+     */
+    @Modifying
+    @Query("UPDATE UserBalance b SET "
+            + "b.firstDate = CASE WHEN b.firstDate IS NULL OR b.firstDate > :date THEN :date ELSE b.firstDate END, "
+            + "b.lastDate = CASE WHEN b.lastDate IS NULL OR b.lastDate < :date THEN :date ELSE b.lastDate END "
+            + "WHERE b.userId = :userId")
+    int extendDateRange(@Param("userId") Long userId, @Param("date") LocalDate date);
+
+    /**
+     * Recompute the tracked date range after a row was removed or moved
+     */
+    @Modifying
+    @Query("UPDATE UserBalance b SET "
+            + "b.firstDate = (SELECT MIN(e.date) FROM Expense e WHERE e.user.id = :userId), "
+            + "b.lastDate = (SELECT MAX(e.date) FROM Expense e WHERE e.user.id = :userId) "
+            + "WHERE b.userId = :userId")
+    int refreshDateRange(@Param("userId") Long userId);
+}
@@ -1,8 +1,10 @@
 package com.example.expensetracker.repository;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import com.example.expensetracker.model.User;
 
@@ -12,4 +14,21 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+
+    @Query("SELECT u.id FROM User u ORDER BY u.id")
+    List<Long> findAllIds();
+
+    /**
+     * Users with expenses but no monthly rollups, i.e. ledgers from before rollups were maintained
+     */
+    @Query("SELECT u.id FROM User u WHERE EXISTS (SELECT e.id FROM Expense e WHERE e.user = u) "
+            + "AND NOT EXISTS (SELECT r.id FROM MonthlyRollup r WHERE r.userId = u.id) ORDER BY u.id")
+    List<Long> findIdsWithoutRollups();
+
+    /**
+     * Users whose ledger is not covered by the search index yet, skipping accounts being deleted
+     */
+    @Query("SELECT u.id FROM User u WHERE NOT EXISTS (SELECT m.userId FROM SearchIndexedUser m WHERE m.userId = u.id) "
+            + "AND NOT EXISTS (SELECT d.userId FROM AccountDeletion d WHERE d.userId = u.id) ORDER BY u.id")
+    List<Long> findIdsWithoutSearchIndex();
 }
@@ -0,0 +1,57 @@
+package com.example.expensetracker.security;
+
+import com.example.expensetracker.model.User;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Authenticated principal that remembers the user's database id,
+ * so request handlers can reference the User row without looking it up by username.
+ */
+public class AppUserPrincipal implements UserDetails, CredentialsContainer {
+
+    private final Long userId;
+    private final String username;
+    private String password;
+    private final List<GrantedAuthority> authorities;
+
+    public AppUserPrincipal(Long userId, String username, String password, String role) {
+        this.userId = userId;
+        this.username = username;
+        this.password = password;
+        this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role.replace("ROLE_", "")));
+    }
+
+    public static AppUserPrincipal of(User user) {
+        return new AppUserPrincipal(user.getId(), user.getUsername(), user.getPassword(), user.getRole());
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public void eraseCredentials() {
+        this.password = null;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.expensetracker.security;
+
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.repository.UserRepository;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Resolves {@link CurrentUser} parameters.
+ * With an {@link AppUserPrincipal} the id is already known, so a reference is returned
+ * without touching the database; other principals fall back to the {@link UserCache}.
+ */
+@Component
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private final UserRepository userRepository;
+    private final UserCache userCache;
+
+    public CurrentUserArgumentResolver(UserRepository userRepository, UserCache userCache) {
+        this.userRepository = userRepository;
+        this.userCache = userCache;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentUser.class)
+                && User.class.isAssignableFrom(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            throw new RuntimeException("User not found");
+        }
+
+        if (authentication.getPrincipal() instanceof AppUserPrincipal principal) {
+            return userRepository.getReferenceById(principal.getUserId());
+        }
+
+        return userCache.get(authentication.getName())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+}
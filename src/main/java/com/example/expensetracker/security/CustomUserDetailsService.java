@@ -1,6 +1,7 @@
 package com.example.expensetracker.security;
 
 import com.example.expensetracker.model.User;
+import com.example.expensetracker.repository.AccountDeletionRepository;
 import com.example.expensetracker.repository.UserRepository;
 
 import org.springframework.security.core.userdetails.*;
@@ -10,9 +11,15 @@ import org.springframework.stereotype.Service;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final AccountDeletionRepository accountDeletionRepository;
+    private final UserCache userCache;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository,
+                                    AccountDeletionRepository accountDeletionRepository,
+                                    UserCache userCache) {
         this.userRepository = userRepository;
+        this.accountDeletionRepository = accountDeletionRepository;
+        this.userCache = userCache;
     }
 
     @Override
@@ -22,10 +29,14 @@ public class CustomUserDetailsService implements UserDetailsService {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
-        return org.springframework.security.core.userdetails.User
-                .withUsername(user.getUsername())
-                .password(user.getPassword())
-                .roles(user.getRole().replace("ROLE_", ""))
-                .build();
+        // Accounts being deleted are treated as gone
+        if (accountDeletionRepository.existsById(user.getId())) {
+            throw new UsernameNotFoundException("User not found");
+        }
+
+        // Always read the password hash fresh at login, then prime the cache for later requests
+        userCache.put(user);
+
+        return AppUserPrincipal.of(user);
     }
 }
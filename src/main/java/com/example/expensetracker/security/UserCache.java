@@ -0,0 +1,86 @@
+package com.example.expensetracker.security;
+
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded, time-limited cache of User entities keyed by username.
+ * Entries are detached copies and must be treated as read-only.
+ * Least recently used entries are dropped once maxSize is reached.
+ */
+@Component
+public class UserCache {
+
+    private final UserRepository userRepository;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Map<String, Entry> entries;
+
+    public UserCache(UserRepository userRepository,
+                     @Value("${expensetracker.user-cache.max-size:1000}") int maxSize,
+                     @Value("${expensetracker.user-cache.ttl:10m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > UserCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Get the user, loading it from the database on a miss or after the entry expired
+     */
+    public Optional<User> get(String username) {
+        User cached = lookup(username);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        // Load outside the lock so a slow query does not block other requests
+        Optional<User> loaded = userRepository.findByUsername(username);
+        loaded.ifPresent(this::put);
+        return loaded;
+    }
+
+    public void put(User user) {
+        synchronized (entries) {
+            entries.put(user.getUsername(), new Entry(user, System.nanoTime() + ttlNanos));
+        }
+    }
+
+    /**
+     * Drop a user, e.g. after the account was changed or deleted
+     */
+    public void evict(String username) {
+        synchronized (entries) {
+            entries.remove(username);
+        }
+    }
+
+    private User lookup(String username) {
+        synchronized (entries) {
+            Entry entry = entries.get(username);
+            if (entry == null) {
+                return null;
+            }
+            if (System.nanoTime() - entry.expiresAt() > 0) {
+                entries.remove(username);
+                return null;
+            }
+            return entry.user();
+        }
+    }
+
+    private record Entry(User user, long expiresAt) {
+    }
+}
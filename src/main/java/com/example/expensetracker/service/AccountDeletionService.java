@@ -0,0 +1,210 @@
+package com.example.expensetracker.service;
+
+import com.example.expensetracker.model.AccountDeletion;
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.repository.AccountDeletionRepository;
+import com.example.expensetracker.repository.ExpenseRepository;
+import com.example.expensetracker.repository.MonthlyRollupRepository;
+import com.example.expensetracker.repository.SearchGramRepository;
+import com.example.expensetracker.repository.SearchIndexedUserRepository;
+import com.example.expensetracker.repository.UserBalanceRepository;
+import com.example.expensetracker.repository.UserRepository;
+import com.example.expensetracker.security.AppUserPrincipal;
+import com.example.expensetracker.security.UserCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.core.session.SessionInformation;
+import org.springframework.security.core.session.SessionRegistry;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Deletes user accounts without one long transaction.
+ * The request is recorded in account_deletions, which also locks the user out, and the user's
+ * open sessions are expired. A background task then removes the expenses oldest first, together
+ * with their search postings, in chunks of bulk DELETEs; each chunk commits on its own and
+ * advances the recorded progress. Once the ledger is empty the derived rows and the user row are
+ * removed in one short transaction.
+ * Deletions interrupted by a restart are resumed at startup.
+ */
+@Service
+public class AccountDeletionService {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountDeletionService.class);
+
+    private final AccountDeletionRepository accountDeletionRepository;
+    private final ExpenseRepository expenseRepository;
+    private final SearchGramRepository searchGramRepository;
+    private final SearchIndexedUserRepository searchIndexedUserRepository;
+    private final MonthlyRollupRepository monthlyRollupRepository;
+    private final UserBalanceRepository userBalanceRepository;
+    private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final SessionRegistry sessionRegistry;
+    private final LedgerSnapshotCache ledgerSnapshotCache;
+    private final SingleFlight singleFlight;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor taskExecutor;
+    private final int chunkSize;
+
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+
+    public AccountDeletionService(AccountDeletionRepository accountDeletionRepository,
+                                  ExpenseRepository expenseRepository,
+                                  SearchGramRepository searchGramRepository,
+                                  SearchIndexedUserRepository searchIndexedUserRepository,
+                                  MonthlyRollupRepository monthlyRollupRepository,
+                                  UserBalanceRepository userBalanceRepository,
+                                  UserRepository userRepository,
+                                  UserCache userCache,
+                                  SessionRegistry sessionRegistry,
+                                  LedgerSnapshotCache ledgerSnapshotCache,
+                                  SingleFlight singleFlight,
+                                  TransactionTemplate transactionTemplate,
+                                  @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                                  @Value("${expensetracker.account-deletion.chunk-size:1000}") int chunkSize) {
+        this.accountDeletionRepository = accountDeletionRepository;
+        this.expenseRepository = expenseRepository;
+        this.searchGramRepository = searchGramRepository;
+        this.searchIndexedUserRepository = searchIndexedUserRepository;
+        this.monthlyRollupRepository = monthlyRollupRepository;
+        this.userBalanceRepository = userBalanceRepository;
+        this.userRepository = userRepository;
+        this.userCache = userCache;
+        this.sessionRegistry = sessionRegistry;
+        this.ledgerSnapshotCache = ledgerSnapshotCache;
+        this.singleFlight = singleFlight;
+        this.transactionTemplate = transactionTemplate;
+        this.taskExecutor = taskExecutor;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Record the deletion of a user's account and start it in the background.
+     * Asking again for a pending deletion resumes it; progress is available from getStatus.
+     */
+    public AccountDeletionStatus requestDeletion(Long userId) {
+        AccountDeletion deletion = transactionTemplate.execute(status ->
+                accountDeletionRepository.findById(userId).orElseGet(() -> {
+                    User user = userRepository.findById(userId)
+                            .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+                    return accountDeletionRepository.save(new AccountDeletion(userId, user.getUsername(),
+                            expenseRepository.countByUser(user), LocalDateTime.now()));
+                }));
+
+        userCache.evict(deletion.getUsername());
+        expireSessions(userId);
+        if (deletion.getCompletedAt() == null) {
+            start(userId);
+        }
+        return AccountDeletionStatus.of(deletion, running.contains(userId));
+    }
+
+    /**
+     * End every session the user is logged in with; their next request is sent to the login page
+     */
+    private void expireSessions(Long userId) {
+        for (Object principal : sessionRegistry.getAllPrincipals()) {
+            if (principal instanceof AppUserPrincipal appUser && userId.equals(appUser.getUserId())) {
+                sessionRegistry.getAllSessions(principal, false).forEach(SessionInformation::expireNow);
+            }
+        }
+    }
+
+    /**
+     * Progress of a user's account deletion, if one was requested
+     */
+    public Optional<AccountDeletionStatus> getStatus(Long userId) {
+        return accountDeletionRepository.findById(userId)
+                .map(deletion -> AccountDeletionStatus.of(deletion, running.contains(userId)));
+    }
+
+    /**
+     * Pick up deletions that were still running when the application last stopped
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePending() {
+        List<Long> pending = accountDeletionRepository.findPendingUserIds();
+        if (!pending.isEmpty()) {
+            log.info("Resuming {} pending account deletions", pending.size());
+            pending.forEach(this::start);
+        }
+    }
+
+    private void start(Long userId) {
+        if (!running.add(userId)) {
+            return;
+        }
+        taskExecutor.execute(() -> {
+            try {
+                run(userId);
+            } catch (Exception e) {
+                // Committed chunks stay deleted; the next request or restart continues from there
+                log.warn("Deletion of account {} failed", userId, e);
+            } finally {
+                running.remove(userId);
+            }
+        });
+    }
+
+    private void run(Long userId) {
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> deleteChunk(userId));
+        } while (deleted > 0);
+
+        String username = transactionTemplate.execute(status -> removeAccount(userId));
+        userCache.evict(username);
+        ledgerSnapshotCache.invalidate(userId);
+        singleFlight.invalidate(userId);
+        log.info("Deleted account {}", userId);
+    }
+
+    /**
+     * Delete the user's oldest chunkSize expenses and their search postings.
+     * Returns how many expenses were selected; 0 once the ledger is empty.
+     */
+    private int deleteChunk(Long userId) {
+        List<Long> ids = expenseRepository.findOldestIds(userId, Limit.of(chunkSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        searchGramRepository.deleteByExpenseIds(userId, ids);
+        accountDeletionRepository.addDeleted(userId, expenseRepository.deleteAllOwned(userId, ids));
+        return ids.size();
+    }
+
+    /**
+     * Remove what is left of the account once the expenses are gone: rows written by a session
+     * that was still open, the derived data, and the user itself. Returns the username.
+     */
+    private String removeAccount(Long userId) {
+        AccountDeletion deletion = accountDeletionRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("No deletion requested for user id: " + userId));
+
+        userRepository.findById(userId).ifPresent(user -> {
+            long remaining = expenseRepository.deleteByUser(user);
+            searchGramRepository.deleteByUserId(userId);
+            searchIndexedUserRepository.deleteById(userId);
+            monthlyRollupRepository.deleteByUserId(userId);
+            userBalanceRepository.deleteById(userId);
+            userRepository.delete(user);
+            deletion.setExpensesDeleted(deletion.getExpensesDeleted() + remaining);
+        });
+
+        deletion.setCompletedAt(LocalDateTime.now());
+        return deletion.getUsername();
+    }
+}
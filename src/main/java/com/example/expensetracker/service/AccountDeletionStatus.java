@@ -0,0 +1,37 @@
+package com.example.expensetracker.service;
+
+import com.example.expensetracker.model.AccountDeletion;
+
+import java.time.LocalDateTime;
+
+/**
+ * Point-in-time progress of an account deletion, as returned by the status API
+ */
+public record AccountDeletionStatus(Long userId,
+                                    AccountDeletionStatus.State state,
+                                    long expensesTotal,
+                                    long expensesDeleted,
+                                    int percentComplete,
+                                    LocalDateTime requestedAt,
+                                    LocalDateTime completedAt) {
+
+    public enum State {
+        PENDING, RUNNING, COMPLETED
+    }
+
+    static AccountDeletionStatus of(AccountDeletion deletion, boolean running) {
+        State state = deletion.getCompletedAt() != null ? State.COMPLETED
+                : running ? State.RUNNING : State.PENDING;
+        return new AccountDeletionStatus(deletion.getUserId(), state, deletion.getExpensesTotal(),
+                deletion.getExpensesDeleted(), percentComplete(state, deletion), deletion.getRequestedAt(),
+                deletion.getCompletedAt());
+    }
+
+    private static int percentComplete(State state, AccountDeletion deletion) {
+        if (state == State.COMPLETED) {
+            return 100;
+        }
+        long total = deletion.getExpensesTotal();
+        return total <= 0 ? 0 : (int) Math.min(99, deletion.getExpensesDeleted() * 100 / total);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.expensetracker.service;
+
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Rebuilds every user's totals (user_balances, monthly_rollups) from the expenses table.
+ * Guards against drift from writes that bypassed ExpenseService (manual SQL, imports).
+ * Each table is rebuilt per user in its own short transaction. The search index is not
+ * rebuilt here: reindexing every ledger every night would cost far more than the drift it fixes.
+ */
+@Component
+public class AggregateRepairJob {
+
+    private static final Logger log = LoggerFactory.getLogger(AggregateRepairJob.class);
+
+    private final UserRepository userRepository;
+    private final UserBalanceService userBalanceService;
+    private final MonthlyRollupService monthlyRollupService;
+
+    public AggregateRepairJob(UserRepository userRepository,
+                              UserBalanceService userBalanceService,
+                              MonthlyRollupService monthlyRollupService) {
+        this.userRepository = userRepository;
+        this.userBalanceService = userBalanceService;
+        this.monthlyRollupService = monthlyRollupService;
+    }
+
+    @Scheduled(cron = "${expensetracker.aggregates.repair-cron:0 30 3 * * *}")
+    public void rebuildAll() {
+        List<Long> userIds = userRepository.findAllIds();
+        log.info("Rebuilding totals for {} users", userIds.size());
+
+        int failed = 0;
+        for (Long userId : userIds) {
+            User user = userRepository.getReferenceById(userId);
+            try {
+                userBalanceService.rebuild(user);
+                monthlyRollupService.rebuild(user);
+            } catch (RuntimeException e) {
+                // One broken ledger must not leave everyone after it unrepaired
+                failed++;
+                log.warn("Could not rebuild totals for user {}", userId, e);
+            }
+        }
+        if (failed > 0) {
+            log.warn("Totals rebuild finished with {} of {} users failed", failed, userIds.size());
+        }
+    }
+}
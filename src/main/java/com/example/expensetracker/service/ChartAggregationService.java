@@ -0,0 +1,149 @@
+package com.example.expensetracker.service;
+
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.ExpenseSummary;
+import com.example.expensetracker.model.Money;
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.repository.ExpenseRepository;
+import com.example.expensetracker.repository.ExpenseSpecifications;
+import com.example.expensetracker.repository.MonthlyRollupRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Builds the dashboard chart series with GROUP BY queries, so the browser receives
+ * a few dozen points instead of every transaction.
+ * Unfiltered views read the maintained rollups; filtered views group the matching rows.
+ */
+@Service
+@Transactional
+public class ChartAggregationService {
+
+    /** Days shown in the daily activity chart, ending today */
+    static final int DAILY_WINDOW_DAYS = 30;
+
+    private final ExpenseRepository expenseRepository;
+    private final MonthlyRollupRepository monthlyRollupRepository;
+    private final UserBalanceService userBalanceService;
+
+    public ChartAggregationService(ExpenseRepository expenseRepository,
+                                   MonthlyRollupRepository monthlyRollupRepository,
+                                   UserBalanceService userBalanceService) {
+        this.expenseRepository = expenseRepository;
+        this.monthlyRollupRepository = monthlyRollupRepository;
+        this.userBalanceService = userBalanceService;
+    }
+
+    public ChartData getChartData(User user, ExpenseFilter filter) {
+        BigDecimal totalIncome;
+        BigDecimal totalExpenses;
+        List<Object[]> categoryRows;
+        List<Object[]> monthRows;
+
+        if (filter.isEmpty()) {
+            ExpenseSummary summary = userBalanceService.getSummary(user);
+            totalIncome = summary.totalIncome();
+            totalExpenses = summary.totalExpenses();
+            categoryRows = monthlyRollupRepository.sumByCategory(user.getId(), Expense.TransactionType.EXPENSE);
+            monthRows = monthlyRollupRepository.sumByMonth(user.getId());
+        } else {
+            Map<Expense.TransactionType, BigDecimal> byType = new EnumMap<>(Expense.TransactionType.class);
+            for (Object[] row : expenseRepository.sumByType(filter.toSpecification(user))) {
+                byType.put((Expense.TransactionType) row[0], (BigDecimal) row[1]);
+            }
+            totalIncome = byType.getOrDefault(Expense.TransactionType.INCOME, BigDecimal.ZERO);
+            totalExpenses = byType.getOrDefault(Expense.TransactionType.EXPENSE, BigDecimal.ZERO);
+            categoryRows = expenseRepository.sumByCategory(filter.toSpecification(user)
+                    .and(ExpenseSpecifications.hasType(Expense.TransactionType.EXPENSE)));
+            monthRows = expenseRepository.sumByMonth(filter.toSpecification(user));
+        }
+
+        return new ChartData(toCategoryAmounts(categoryRows),
+                totalIncome,
+                totalExpenses,
+                toMonthlyAmounts(monthRows),
+                dailyAmounts(user, filter));
+    }
+
+    private static List<ChartData.CategoryAmount> toCategoryAmounts(List<Object[]> rows) {
+        List<ChartData.CategoryAmount> amounts = new ArrayList<>();
+        for (Object[] row : rows) {
+            Expense.Category category = (Expense.Category) row[0];
+            BigDecimal amount = (BigDecimal) row[1];
+            if (amount != null && amount.signum() != 0) {
+                amounts.add(new ChartData.CategoryAmount(category.name(), category.getDisplayName(), amount));
+            }
+        }
+        return amounts;
+    }
+
+    private static List<ChartData.PeriodAmounts> toMonthlyAmounts(List<Object[]> rows) {
+        Map<YearMonth, long[]> months = new TreeMap<>();
+        for (Object[] row : rows) {
+            YearMonth month = YearMonth.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue());
+            add(months.computeIfAbsent(month, m -> zeroPair()), (Expense.TransactionType) row[2], (BigDecimal) row[3]);
+        }
+
+        List<ChartData.PeriodAmounts> amounts = new ArrayList<>();
+        months.forEach((month, pair) -> {
+            if (pair[0] != 0 || pair[1] != 0) {
+                amounts.add(toPeriodAmounts(month.toString(), pair));
+            }
+        });
+        return amounts;
+    }
+
+    /**
+     * One point per day for the last DAILY_WINDOW_DAYS days, zero-filled
+     */
+    private List<ChartData.PeriodAmounts> dailyAmounts(User user, ExpenseFilter filter) {
+        LocalDate today = LocalDate.now();
+        LocalDate windowStart = today.minusDays(DAILY_WINDOW_DAYS);
+
+        Map<LocalDate, long[]> days = new TreeMap<>();
+        for (LocalDate day = windowStart; !day.isAfter(today); day = day.plusDays(1)) {
+            days.put(day, zeroPair());
+        }
+
+        List<Object[]> rows = expenseRepository.sumByDay(filter.toSpecification(user)
+                .and(ExpenseSpecifications.dateBetween(windowStart, today)));
+        for (Object[] row : rows) {
+            long[] pair = days.get((LocalDate) row[0]);
+            if (pair != null) {
+                add(pair, (Expense.TransactionType) row[1], (BigDecimal) row[2]);
+            }
+        }
+
+        List<ChartData.PeriodAmounts> amounts = new ArrayList<>();
+        days.forEach((day, pair) -> amounts.add(toPeriodAmounts(day.toString(), pair)));
+        return amounts;
+    }
+
+    /**
+     * [income, expense] in cents; totals are accumulated as longs and converted once at the end
+     */
+    private static long[] zeroPair() {
+        return new long[2];
+    }
+
+    private static void add(long[] pair, Expense.TransactionType type, BigDecimal amount) {
+        if (amount == null) {
+            return;
+        }
+        int index = type == Expense.TransactionType.INCOME ? 0 : 1;
+        pair[index] = Math.addExact(pair[index], Money.toCents(amount));
+    }
+
+    private static ChartData.PeriodAmounts toPeriodAmounts(String period, long[] pair) {
+        return new ChartData.PeriodAmounts(period, Money.toBigDecimal(pair[0]), Money.toBigDecimal(pair[1]));
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.expensetracker.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Pre-bucketed series for the dashboard charts.
+ * Periods are ISO strings: "yyyy-MM" for months and "yyyy-MM-dd" for days, in ascending order.
+ */
+public record ChartData(List<CategoryAmount> expensesByCategory,
+                        BigDecimal totalIncome,
+                        BigDecimal totalExpenses,
+                        List<PeriodAmounts> monthly,
+                        List<PeriodAmounts> daily) {
+
+    public record CategoryAmount(String category, String label, BigDecimal amount) {
+    }
+
+    public record PeriodAmounts(String period, BigDecimal income, BigDecimal expense) {
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.expensetracker.service;
+
+import com.example.expensetracker.model.ExpenseSummary;
+import com.example.expensetracker.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Loads the independent parts of the dashboard in parallel, each in its own
+ * transaction on its own connection.
+ * The transaction page is required and is loaded on the request thread; the summary
+ * is optional and runs on the bounded read pool meanwhile. It is left out (the page
+ * still renders) if the pool is full, or if it fails or misses the per-request deadline,
+ * which counts its time queued in the pool. A summary this request stops waiting for
+ * keeps running for any other dashboard sharing it.
+ */
+@Service
+public class DashboardAssembler {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardAssembler.class);
+
+    private final ExpenseService expenseService;
+    private final SingleFlight singleFlight;
+    private final Duration deadline;
+
+    public DashboardAssembler(ExpenseService expenseService,
+                              SingleFlight singleFlight,
+                              @Value("${expensetracker.dashboard.deadline:2s}") Duration deadline) {
+        this.expenseService = expenseService;
+        this.singleFlight = singleFlight;
+        this.deadline = deadline;
+    }
+
+    public DashboardView assemble(User user, ExpenseFilter filter, ExpenseCursor after, int pageSize) {
+        long deadlineNanos = System.nanoTime() + deadline.toNanos();
+
+        // Identical loads already running for this user (other tabs, retries) are joined, not repeated
+        Future<ExpenseSummary> summary = singleFlight.submit(user.getId(), "summary",
+                () -> expenseService.getSummary(user));
+        ExpensePage page = loadPage(user, filter, after, pageSize);
+        return new DashboardView(page, optional(summary, deadlineNanos, "summary"));
+    }
+
+    /**
+     * One transaction page on its own ("load more"), coalesced like the dashboard's first page
+     */
+    public ExpensePage loadPage(User user, ExpenseFilter filter, ExpenseCursor after, int pageSize) {
+        return singleFlight.execute(user.getId(), "expensePage",
+                () -> expenseService.getExpensePage(user, filter, after, pageSize), filter, after, pageSize);
+    }
+
+    private static <T> T optional(Future<T> future, long deadlineNanos, String part) {
+        try {
+            return future.get(remaining(deadlineNanos), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            log.warn("Dashboard {} failed; rendering without it", part, e.getCause());
+        } catch (TimeoutException e) {
+            log.warn("Dashboard {} missed the deadline; rendering without it", part);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    private static long remaining(long deadlineNanos) {
+        return Math.max(0, deadlineNanos - System.nanoTime());
+    }
+}
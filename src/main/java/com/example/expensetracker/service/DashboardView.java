@@ -0,0 +1,10 @@
+package com.example.expensetracker.service;
+
+import com.example.expensetracker.model.ExpenseSummary;
+
+/**
+ * Everything the dashboard page renders for one request.
+ * The summary is null when it could not be loaded before the deadline.
+ */
+public record DashboardView(ExpensePage page, ExpenseSummary summary) {
+}
@@ -0,0 +1,215 @@
+package com.example.expensetracker.service;
+
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.Money;
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Bulk-generates synthetic users and transactions into the configured datasource.
+ * Active only with the "seed" profile; see application-seed.properties for the knobs.
+ * Users that already exist are skipped, so re-running the seeder is safe.
+ */
+@Component
+@Profile("seed")
+public class DataSeeder implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DataSeeder.class);
+
+    private static final Map<Expense.Category, String[]> DESCRIPTIONS = new EnumMap<>(Map.of(
+            Expense.Category.FOOD, new String[] {"Blue Bottle Coffee", "Whole Foods", "Pizza Hut", "Starbucks", "Farmers market"},
+            Expense.Category.TRANSPORT, new String[] {"Uber", "Shell", "Metro card", "Parking", "Train ticket"},
+            Expense.Category.SHOPPING, new String[] {"Amazon", "Target", "Apple Store", "IKEA", "Bookshop"},
+            Expense.Category.ENTERTAINMENT, new String[] {"Netflix", "Spotify", "Cinema City", "Concert tickets", "Steam"},
+            Expense.Category.BILLS, new String[] {"City Power", "Water utility", "Internet", "Phone plan", "Rent"},
+            Expense.Category.SALARY, new String[] {"Monthly salary", "Bonus", "Overtime"},
+            Expense.Category.BUSINESS, new String[] {"Client invoice", "Consulting", "Refund"},
+            Expense.Category.OTHER, new String[] {"Gift", "Pharmacy", "Gym membership", "Charity"}));
+
+    private final UserRepository userRepository;
+    private final ExpenseService expenseService;
+    private final BCryptPasswordEncoder passwordEncoder;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ConfigurableApplicationContext context;
+
+    private final int users;
+    private final int transactionsPerUser;
+    private final int months;
+    private final double incomeShare;
+    private final Map<Expense.Category, Integer> expenseWeights;
+    private final Map<Expense.Category, Integer> incomeWeights;
+    private final BigDecimal maxExpenseAmount;
+    private final BigDecimal maxIncomeAmount;
+    private final String usernamePrefix;
+    private final String password;
+    private final int batchSize;
+    private final long randomSeed;
+    private final boolean exitWhenDone;
+
+    public DataSeeder(UserRepository userRepository,
+                      ExpenseService expenseService,
+                      BCryptPasswordEncoder passwordEncoder,
+                      EntityManager entityManager,
+                      TransactionTemplate transactionTemplate,
+                      ConfigurableApplicationContext context,
+                      @Value("${expensetracker.seed.users:10}") int users,
+                      @Value("${expensetracker.seed.transactions-per-user:1000}") int transactionsPerUser,
+                      @Value("${expensetracker.seed.months:24}") int months,
+                      @Value("${expensetracker.seed.income-share:0.15}") double incomeShare,
+                      @Value("${expensetracker.seed.expense-categories:FOOD:30,TRANSPORT:15,SHOPPING:15,ENTERTAINMENT:10,BILLS:20,OTHER:10}") String expenseCategories,
+                      @Value("${expensetracker.seed.income-categories:SALARY:80,BUSINESS:20}") String incomeCategories,
+                      @Value("${expensetracker.seed.max-expense-amount:250.00}") BigDecimal maxExpenseAmount,
+                      @Value("${expensetracker.seed.max-income-amount:5000.00}") BigDecimal maxIncomeAmount,
+                      @Value("${expensetracker.seed.username-prefix:loaduser}") String usernamePrefix,
+                      @Value("${expensetracker.seed.password:password}") String password,
+                      @Value("${expensetracker.seed.batch-size:500}") int batchSize,
+                      @Value("${expensetracker.seed.random-seed:42}") long randomSeed,
+                      @Value("${expensetracker.seed.exit-when-done:false}") boolean exitWhenDone) {
+        this.userRepository = userRepository;
+        this.expenseService = expenseService;
+        this.passwordEncoder = passwordEncoder;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.context = context;
+        this.users = users;
+        this.transactionsPerUser = transactionsPerUser;
+        this.months = months;
+        this.incomeShare = incomeShare;
+        this.expenseWeights = parseWeights(expenseCategories);
+        this.incomeWeights = parseWeights(incomeCategories);
+        this.maxExpenseAmount = maxExpenseAmount;
+        this.maxIncomeAmount = maxIncomeAmount;
+        this.usernamePrefix = usernamePrefix;
+        this.password = password;
+        this.batchSize = batchSize;
+        this.randomSeed = randomSeed;
+        this.exitWhenDone = exitWhenDone;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long started = System.nanoTime();
+        // BCrypt is deliberately slow; every seeded user shares one hash
+        String encodedPassword = passwordEncoder.encode(password);
+        Random random = new Random(randomSeed);
+
+        int created = 0;
+        for (int i = 1; i <= users; i++) {
+            String username = usernamePrefix + i;
+            if (userRepository.existsByUsername(username)) {
+                continue;
+            }
+            seedUser(username, encodedPassword, random);
+            created++;
+        }
+
+        log.info("Seeded {} users with {} transactions each in {} ms ({} already existed)",
+                created, transactionsPerUser, (System.nanoTime() - started) / 1_000_000, users - created);
+
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+
+    private void seedUser(String username, String encodedPassword, Random random) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword(encodedPassword);
+        User saved = userRepository.save(user);
+
+        LocalDate today = LocalDate.now();
+        int days = Math.max(1, (int) (today.toEpochDay() - today.minusMonths(months).toEpochDay()));
+
+        // Inserted directly in batches; derived data is rebuilt once afterwards
+        for (int offset = 0; offset < transactionsPerUser; offset += batchSize) {
+            int count = Math.min(batchSize, transactionsPerUser - offset);
+            transactionTemplate.executeWithoutResult(status -> {
+                User owner = entityManager.getReference(User.class, saved.getId());
+                for (int i = 0; i < count; i++) {
+                    entityManager.persist(randomExpense(owner, random, today.minusDays(random.nextInt(days))));
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+
+        expenseService.rebuildDerivedData(saved);
+    }
+
+    private Expense randomExpense(User owner, Random random, LocalDate date) {
+        boolean income = random.nextDouble() < incomeShare;
+        Expense.TransactionType type = income ? Expense.TransactionType.INCOME : Expense.TransactionType.EXPENSE;
+        Expense.Category category = pick(income ? incomeWeights : expenseWeights, random);
+        String[] descriptions = DESCRIPTIONS.get(category);
+
+        Expense expense = new Expense();
+        expense.setUser(owner);
+        expense.setType(type);
+        expense.setCategory(category);
+        expense.setDescription(descriptions[random.nextInt(descriptions.length)]);
+        expense.setAmount(randomAmount(random, income ? maxIncomeAmount : maxExpenseAmount));
+        expense.setDate(date);
+        if (random.nextInt(5) == 0) {
+            expense.setNotes("Seeded note " + random.nextInt(1000));
+        }
+        return expense;
+    }
+
+    private static BigDecimal randomAmount(Random random, BigDecimal max) {
+        long maxCents = Math.max(1, Money.toCents(max));
+        return Money.toBigDecimal(1 + (long) (random.nextDouble() * maxCents));
+    }
+
+    private static Expense.Category pick(Map<Expense.Category, Integer> weights, Random random) {
+        int total = weights.values().stream().mapToInt(Integer::intValue).sum();
+        int roll = random.nextInt(total);
+        for (Map.Entry<Expense.Category, Integer> entry : weights.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+
+    /**
+     * Parse "FOOD:30,BILLS:20" into category weights
+     */
+    static Map<Expense.Category, Integer> parseWeights(String spec) {
+        Map<Expense.Category, Integer> weights = new EnumMap<>(Expense.Category.class);
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid category weight: " + part);
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight > 0) {
+                weights.put(Expense.Category.valueOf(pair[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("No positive category weights in: " + spec);
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.expensetracker.service;
+
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.ExpenseValues;
+import com.example.expensetracker.model.MonthlyRollup;
+import com.example.expensetracker.model.User;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Net effect of one set-based write on a user's ledger.
+ * deltas holds signed (total, count) changes per (year, month, type, category) bucket,
+ * with buckets that cancel out dropped; deletedIds lists the ids a bulk delete targeted
+ * (empty otherwise) and added the rows a bulk insert wrote (empty otherwise).
+ */
+public record ExpenseBulkChange(User user, List<MonthlyRollup> deltas, List<Long> deletedIds,
+                                List<ExpenseValues> added) {
+
+    /**
+     * Sum of the deltas for one transaction type
+     */
+    public BigDecimal amountFor(Expense.TransactionType type) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (MonthlyRollup delta : deltas) {
+            if (delta.getType() == type) {
+                total = total.add(delta.getTotal());
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Net change in the number of transactions
+     */
+    public long countDelta() {
+        long count = 0;
+        for (MonthlyRollup delta : deltas) {
+            count += delta.getTransactionCount();
+        }
+        return count;
+    }
+
+    /**
+     * Accumulates bucket deltas, merging repeated buckets as they are added
+     */
+    static final class Deltas {
+
+        private record Bucket(int year, int month, Expense.TransactionType type, Expense.Category category) {
+        }
+
+        private final Map<Bucket, MonthlyRollup> buckets = new LinkedHashMap<>();
+
+        void add(MonthlyRollup delta) {
+            Bucket key = new Bucket(delta.getYear(), delta.getMonth(), delta.getType(), delta.getCategory());
+            MonthlyRollup current = buckets.get(key);
+            if (current == null) {
+                buckets.put(key, new MonthlyRollup(delta.getUserId(), delta.getYear(), delta.getMonth(),
+                        delta.getType(), delta.getCategory(), delta.getTotal(), delta.getTransactionCount()));
+            } else {
+                current.setTotal(current.getTotal().add(delta.getTotal()));
+                current.setTransactionCount(current.getTransactionCount() + delta.getTransactionCount());
+            }
+        }
+
+        void add(ExpenseValues expense) {
+            add(new MonthlyRollup(expense.userId(), expense.date().getYear(), expense.date().getMonthValue(),
+                    expense.type(), expense.category(), expense.amount(), 1));
+        }
+
+        void subtract(MonthlyRollup bucket) {
+            add(new MonthlyRollup(bucket.getUserId(), bucket.getYear(), bucket.getMonth(), bucket.getType(),
+                    bucket.getCategory(), bucket.getTotal().negate(), -bucket.getTransactionCount()));
+        }
+
+        List<MonthlyRollup> nonZero() {
+            List<MonthlyRollup> result = new ArrayList<>();
+            for (MonthlyRollup delta : buckets.values()) {
+                if (delta.getTransactionCount() != 0 || delta.getTotal().signum() != 0) {
+                    result.add(delta);
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.expensetracker.service;
+
+import com.example.expensetracker.model.ExpenseValues;
+import com.example.expensetracker.model.User;
+
+/**
+ * Keeps derived data (totals, rollups, indexes) in step with expense writes.
+ * ExpenseService calls every listener inside the transaction of the write,
+ * after the change has been handed to the persistence context.
+ */
+public interface ExpenseChangeListener {
+
+    void onAdded(ExpenseValues expense);
+
+    void onRemoved(ExpenseValues expense);
+
+    void onChanged(ExpenseValues before, ExpenseValues after);
+
+    /**
+     * A set of the user's expenses was inserted, deleted or updated by one set-based write;
+     * apply the netted bucket deltas instead of replaying the rows one by one
+     */
+    void onBulkChange(ExpenseBulkChange change);
+
+    /**
+     * The user's expenses changed in a way that cannot be described row by row;
+     * discard and recompute everything derived for that user
+     */
+    void onLedgerReset(User user);
+}
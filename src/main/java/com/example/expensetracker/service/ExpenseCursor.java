@@ -0,0 +1,48 @@
+package com.example.expensetracker.service;
+
+import com.example.expensetracker.model.Expense;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Position in the (date DESC, id DESC) ordering of a user's transactions.
+ * The next page starts strictly after this position.
+ */
+public record ExpenseCursor(LocalDate date, Long id) {
+
+    private static final char SEPARATOR = '_';
+
+    /**
+     * Cursor positioned on the given expense
+     */
+    public static ExpenseCursor of(Expense expense) {
+        return new ExpenseCursor(expense.getDate(), expense.getId());
+    }
+
+    /**
+     * Parse a cursor produced by {@link #encode()}. Returns null for a blank value.
+     */
+    public static ExpenseCursor parse(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        int separator = value.indexOf(SEPARATOR);
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid cursor: " + value);
+        }
+        try {
+            return new ExpenseCursor(LocalDate.parse(value.substring(0, separator)),
+                    Long.valueOf(value.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + value, e);
+        }
+    }
+
+    /**
+     * Opaque string form, safe to use as a request parameter
+     */
+    public String encode() {
+        return date.toString() + SEPARATOR + id;
+    }
+}
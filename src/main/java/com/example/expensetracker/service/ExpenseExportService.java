@@ -0,0 +1,171 @@
+package com.example.expensetracker.service;
+
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.repository.ExpenseRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Writes a user's (filtered) ledger as CSV or JSON straight from a database cursor.
+ * Rows are written as they are fetched, so memory use does not depend on ledger size.
+ * The CSV layout is the one ExpenseImportService reads.
+ */
+@Service
+public class ExpenseExportService {
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        JSON("application/json", "json");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * The requested format, CSV if none was given; empty for a name that is not a format
+         */
+        public static Optional<Format> fromRequest(String format) {
+            if (format == null || format.isEmpty()) {
+                return Optional.of(CSV);
+            }
+            for (Format candidate : values()) {
+                if (candidate.name().equalsIgnoreCase(format)) {
+                    return Optional.of(candidate);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    private final ExpenseRepository expenseRepository;
+    private final int fetchSize;
+
+    public ExpenseExportService(ExpenseRepository expenseRepository,
+                                @Value("${expensetracker.export.fetch-size:500}") int fetchSize) {
+        this.expenseRepository = expenseRepository;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Stream the matching transactions to the output, newest first.
+     * Called from the response-writing thread; the transaction spans the whole write.
+     */
+    @Transactional(readOnly = true)
+    public void export(User user, ExpenseFilter filter, Format format, OutputStream output) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        try (Stream<Object[]> rows = expenseRepository.streamExportColumns(filter.toSpecification(user), fetchSize)) {
+            if (format == Format.CSV) {
+                writeCsv(rows.iterator(), writer);
+            } else {
+                writeJson(rows.iterator(), writer);
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Export interrupted", e);
+        }
+    }
+
+    private static void writeCsv(Iterator<Object[]> rows, Writer writer) throws IOException {
+        writer.write("date,description,amount,type,category,notes\r\n");
+        while (rows.hasNext()) {
+            Object[] row = rows.next();
+            writer.write(row[0].toString());
+            writer.write(',');
+            writer.write(csvField((String) row[1]));
+            writer.write(',');
+            writer.write(((BigDecimal) row[2]).toPlainString());
+            writer.write(',');
+            writer.write(((Expense.TransactionType) row[3]).name());
+            writer.write(',');
+            writer.write(((Expense.Category) row[4]).name());
+            writer.write(',');
+            writer.write(csvField((String) row[5]));
+            writer.write("\r\n");
+        }
+    }
+
+    private static void writeJson(Iterator<Object[]> rows, Writer writer) throws IOException {
+        writer.write('[');
+        boolean first = true;
+        while (rows.hasNext()) {
+            Object[] row = rows.next();
+            if (!first) {
+                writer.write(',');
+            }
+            first = false;
+            writer.write("{\"date\":\"");
+            writer.write(((LocalDate) row[0]).toString());
+            writer.write("\",\"description\":");
+            writer.write(jsonString((String) row[1]));
+            writer.write(",\"amount\":");
+            writer.write(((BigDecimal) row[2]).toPlainString());
+            writer.write(",\"type\":\"");
+            writer.write(((Expense.TransactionType) row[3]).name());
+            writer.write("\",\"category\":\"");
+            writer.write(((Expense.Category) row[4]).name());
+            writer.write("\",\"notes\":");
+            writer.write(row[5] == null ? "null" : jsonString((String) row[5]));
+            writer.write('}');
+        }
+        writer.write(']');
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String jsonString(String value) {
+        StringBuilder json = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        return json.append('"').toString();
+    }
+}
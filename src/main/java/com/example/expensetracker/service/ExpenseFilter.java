@@ -0,0 +1,144 @@
+package com.example.expensetracker.service;
+
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.repository.ExpenseSpecifications;
+import org.springframework.data.jpa.domain.PredicateSpecification;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Parsed dashboard filter criteria. A null field means "no restriction".
+ * The date range is inclusive on both ends.
+ */
+public record ExpenseFilter(String search,
+                            Expense.TransactionType type,
+                            Expense.Category category,
+                            LocalDate startDate,
+                            LocalDate endDate) {
+
+    /**
+     * Filter that matches every transaction
+     */
+    public static ExpenseFilter none() {
+        return new ExpenseFilter(null, null, null, null, null);
+    }
+
+    /**
+     * Build a filter from the raw dashboard request parameters.
+     * The period ("today", "this_week", "this_month", "last_month", "custom")
+     * is resolved to a concrete date range here; a custom range without a
+     * start date does not restrict by date.
+     */
+    public static ExpenseFilter fromRequest(String search, String type, String category,
+                                            String period, String startDate, String endDate) {
+
+        String keyword = (search != null && !search.trim().isEmpty()) ? search : null;
+
+        Expense.TransactionType transactionType = null;
+        if (type != null && !type.isEmpty()) {
+            transactionType = Expense.TransactionType.valueOf(type);
+        }
+
+        Expense.Category expenseCategory = null;
+        if (category != null && !category.isEmpty()) {
+            expenseCategory = Expense.Category.valueOf(category);
+        }
+
+        LocalDate start = null;
+        LocalDate end = null;
+        if (period != null && !period.isEmpty()) {
+            LocalDate today = LocalDate.now();
+            end = today;
+
+            switch (period) {
+                case "today":
+                    start = today;
+                    break;
+                case "this_week":
+                    start = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                    break;
+                case "this_month":
+                    start = today.withDayOfMonth(1);
+                    break;
+                case "last_month":
+                    start = today.minusMonths(1).withDayOfMonth(1);
+                    end = today.minusMonths(1).with(TemporalAdjusters.lastDayOfMonth());
+                    break;
+                case "custom":
+                    if (startDate != null && !startDate.isEmpty()) {
+                        start = LocalDate.parse(startDate);
+                    }
+                    if (endDate != null && !endDate.isEmpty()) {
+                        end = LocalDate.parse(endDate);
+                    }
+                    break;
+            }
+
+            if (start == null) {
+                end = null;
+            }
+        }
+
+        return new ExpenseFilter(keyword, transactionType, expenseCategory, start, end);
+    }
+
+    /**
+     * True when the filter matches every transaction
+     */
+    public boolean isEmpty() {
+        return search == null && type == null && category == null && !hasDateRange();
+    }
+
+    /**
+     * True when the filter restricts by date
+     */
+    public boolean hasDateRange() {
+        return startDate != null;
+    }
+
+    /**
+     * Translate the filter into a single Specification scoped to the user
+     */
+    public Specification<Expense> toSpecification(User user) {
+        Specification<Expense> spec = Specification.where(toPredicateSpecification(user));
+        if (search != null) {
+            // Narrow to candidates via the n-gram index; the exact match is already in the predicate
+            Set<String> grams = SearchGrams.forSubstring(search);
+            if (!grams.isEmpty()) {
+                spec = spec.and(ExpenseSpecifications.searchIndexContains(user.getId(), grams));
+            }
+        }
+        return spec;
+    }
+
+    /**
+     * The same rows as toSpecification without the n-gram narrowing, which needs a SELECT
+     * subquery; usable as the WHERE clause of a set-based DELETE or UPDATE
+     */
+    public PredicateSpecification<Expense> toPredicateSpecification(User user) {
+        List<PredicateSpecification<Expense>> specs = new ArrayList<>();
+        specs.add(ExpenseSpecifications.belongsTo(user));
+
+        if (search != null) {
+            specs.add(ExpenseSpecifications.descriptionContains(search));
+        }
+        if (type != null) {
+            specs.add(ExpenseSpecifications.hasType(type));
+        }
+        if (category != null) {
+            specs.add(ExpenseSpecifications.hasCategory(category));
+        }
+        if (hasDateRange()) {
+            specs.add(ExpenseSpecifications.dateBetween(startDate, endDate));
+        }
+
+        return PredicateSpecification.allOf(specs);
+    }
+}
@@ -0,0 +1,402 @@
+package com.example.expensetracker.service;
+
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.ExpenseValues;
+import com.example.expensetracker.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Imports transactions from a CSV bank export.
+ * The upload is spooled to a temporary file and imported in the background: rows are
+ * parsed one at a time, validated, and inserted through a StatelessSession in chunks,
+ * each chunk in its own transaction and sent as one JDBC batch. At most one chunk of
+ * rows is held in memory. After each chunk commits, its rows are applied to the derived
+ * data (balances, rollups, search index) as one bulk change; the derived data is only
+ * rebuilt if that step fails.
+ */
+@Service
+public class ExpenseImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpenseImportService.class);
+
+    private static final int MAX_DESCRIPTION_LENGTH = 255;
+    private static final int MAX_NOTES_LENGTH = 500;
+    private static final Duration FINISHED_RETENTION = Duration.ofHours(1);
+
+    private final SessionFactory sessionFactory;
+    private final ExpenseService expenseService;
+    private final TaskExecutor taskExecutor;
+    private final int chunkSize;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public ExpenseImportService(EntityManagerFactory entityManagerFactory,
+                                ExpenseService expenseService,
+                                @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                                @Value("${expensetracker.import.chunk-size:500}") int chunkSize) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.expenseService = expenseService;
+        this.taskExecutor = taskExecutor;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Start importing the uploaded file for the user; progress is available from getStatus.
+     * The date column is parsed as ISO (yyyy-MM-dd) unless a pattern is given.
+     */
+    public ImportStatus startImport(User user, MultipartFile file, String datePattern) {
+        DateTimeFormatter dateFormat = (datePattern == null || datePattern.isBlank())
+                ? DateTimeFormatter.ISO_LOCAL_DATE
+                : DateTimeFormatter.ofPattern(datePattern, Locale.ROOT);
+
+        Path spooled;
+        try {
+            spooled = Files.createTempFile("expense-import-", ".csv");
+            file.transferTo(spooled);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not store uploaded file", e);
+        }
+
+        forgetFinishedJobs();
+        ImportJob job = new ImportJob(user.getId(), file.getSize());
+        jobs.put(job.getId(), job);
+        taskExecutor.execute(() -> run(job, user, spooled, dateFormat));
+        return job.toStatus();
+    }
+
+    /**
+     * Status of one of the user's imports
+     */
+    public Optional<ImportStatus> getStatus(User user, String importId) {
+        ImportJob job = jobs.get(importId);
+        if (job == null || !job.getUserId().equals(user.getId())) {
+            return Optional.empty();
+        }
+        return Optional.of(job.toStatus());
+    }
+
+    private void run(ImportJob job, User user, Path spooled, DateTimeFormatter dateFormat) {
+        job.start();
+        try (InputStream input = new CountingInputStream(Files.newInputStream(spooled), job.bytesRead);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+
+            importRows(job, user, new CsvReader(reader), dateFormat);
+            job.finish(ImportStatus.State.COMPLETED, null);
+        } catch (Exception e) {
+            log.warn("Import {} failed", job.getId(), e);
+            job.finish(ImportStatus.State.FAILED, e.getMessage());
+        } finally {
+            deleteQuietly(spooled);
+            // A chunk committed without its derived-data update leaves the aggregates behind
+            if (job.derivedDataStale) {
+                expenseService.rebuildDerivedData(user);
+            }
+        }
+    }
+
+    private void importRows(ImportJob job, User user, CsvReader csv, DateTimeFormatter dateFormat)
+            throws IOException {
+        List<String> header = csv.next();
+        if (header == null) {
+            throw new RuntimeException("The file is empty");
+        }
+        ColumnMapping columns = ColumnMapping.fromHeader(header);
+
+        List<Expense> chunk = new ArrayList<>(chunkSize);
+        List<String> fields;
+        while ((fields = csv.next()) != null) {
+            job.rowsRead.incrementAndGet();
+            try {
+                chunk.add(columns.toExpense(fields, dateFormat));
+            } catch (IllegalArgumentException e) {
+                job.reject(csv.recordLine(), e.getMessage());
+                continue;
+            }
+            if (chunk.size() == chunkSize) {
+                importChunk(job, user, chunk);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(job, user, chunk);
+        }
+    }
+
+    /**
+     * Insert a chunk, then apply its rows to the user's derived data in a second transaction
+     */
+    private void importChunk(ImportJob job, User user, List<Expense> chunk) {
+        job.derivedDataStale = true;
+        insert(user.getId(), chunk);
+        job.rowsImported.addAndGet(chunk.size());
+
+        List<ExpenseValues> inserted = new ArrayList<>(chunk.size());
+        for (Expense expense : chunk) {
+            inserted.add(ExpenseValues.of(expense));
+        }
+        expenseService.applyInserted(user, inserted);
+        job.derivedDataStale = false;
+    }
+
+    /**
+     * Insert one chunk in its own transaction as a single JDBC batch
+     */
+    private void insert(Long userId, List<Expense> chunk) {
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            session.setJdbcBatchSize(chunkSize);
+            Transaction transaction = session.beginTransaction();
+            try {
+                User owner = session.get(User.class, userId);
+                for (Expense expense : chunk) {
+                    expense.setUser(owner);
+                }
+                session.insertMultiple(chunk);
+                transaction.commit();
+            } catch (RuntimeException e) {
+                transaction.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private void forgetFinishedJobs() {
+        Instant cutoff = Instant.now().minus(FINISHED_RETENTION);
+        jobs.values().removeIf(job -> job.isFinishedBefore(cutoff));
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete {}", path, e);
+        }
+    }
+
+    /**
+     * Which CSV column holds which Expense field, resolved from the header row.
+     * Either a signed amount column or separate debit/credit columns is required;
+     * without a type column, negative amounts and debits are expenses.
+     */
+    private record ColumnMapping(Map<Field, Integer> indexes) {
+
+        private enum Field {
+            DATE("date", "transaction date", "posted date", "booking date"),
+            DESCRIPTION("description", "payee", "memo", "details", "name"),
+            AMOUNT("amount", "value"),
+            DEBIT("debit", "withdrawal"),
+            CREDIT("credit", "deposit"),
+            TYPE("type", "transaction type"),
+            CATEGORY("category"),
+            NOTES("notes", "note", "comment");
+
+            private final List<String> headers;
+
+            Field(String... headers) {
+                this.headers = List.of(headers);
+            }
+        }
+
+        static ColumnMapping fromHeader(List<String> header) {
+            Map<Field, Integer> indexes = new EnumMap<>(Field.class);
+            for (int i = 0; i < header.size(); i++) {
+                String name = header.get(i).trim().toLowerCase(Locale.ROOT);
+                for (Field field : Field.values()) {
+                    if (field.headers.contains(name)) {
+                        indexes.putIfAbsent(field, i);
+                    }
+                }
+            }
+            if (!indexes.containsKey(Field.DATE) || !indexes.containsKey(Field.DESCRIPTION)) {
+                throw new RuntimeException("The header must name a date and a description column");
+            }
+            if (!indexes.containsKey(Field.AMOUNT)
+                    && !(indexes.containsKey(Field.DEBIT) || indexes.containsKey(Field.CREDIT))) {
+                throw new RuntimeException("The header must name an amount column or debit/credit columns");
+            }
+            return new ColumnMapping(indexes);
+        }
+
+        /**
+         * Validate one row and map it to an (ownerless) Expense
+         */
+        Expense toExpense(List<String> fields, DateTimeFormatter dateFormat) {
+            String description = value(fields, Field.DESCRIPTION);
+            if (description == null) {
+                throw new IllegalArgumentException("description is required");
+            }
+            if (description.length() > MAX_DESCRIPTION_LENGTH) {
+                description = description.substring(0, MAX_DESCRIPTION_LENGTH);
+            }
+
+            String dateText = value(fields, Field.DATE);
+            if (dateText == null) {
+                throw new IllegalArgumentException("date is required");
+            }
+            LocalDate date;
+            try {
+                date = LocalDate.parse(dateText, dateFormat);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("invalid date '" + dateText + "'");
+            }
+
+            BigDecimal signed = signedAmount(fields);
+            if (signed.signum() == 0) {
+                throw new IllegalArgumentException("amount must not be zero");
+            }
+
+            Expense.TransactionType type = parseType(value(fields, Field.TYPE));
+            if (type == null) {
+                type = signed.signum() < 0 ? Expense.TransactionType.EXPENSE : Expense.TransactionType.INCOME;
+            }
+
+            String notes = value(fields, Field.NOTES);
+            if (notes != null && notes.length() > MAX_NOTES_LENGTH) {
+                notes = notes.substring(0, MAX_NOTES_LENGTH);
+            }
+
+            Expense expense = new Expense();
+            expense.setDescription(description);
+            expense.setAmount(signed.abs());
+            expense.setType(type);
+            expense.setCategory(parseCategory(value(fields, Field.CATEGORY), type));
+            expense.setDate(date);
+            expense.setNotes(notes);
+            return expense;
+        }
+
+        private BigDecimal signedAmount(List<String> fields) {
+            String amount = value(fields, Field.AMOUNT);
+            if (amount != null) {
+                return parseAmount(amount);
+            }
+            String debit = value(fields, Field.DEBIT);
+            if (debit != null) {
+                return parseAmount(debit).abs().negate();
+            }
+            String credit = value(fields, Field.CREDIT);
+            if (credit != null) {
+                return parseAmount(credit).abs();
+            }
+            throw new IllegalArgumentException("amount is required");
+        }
+
+        private String value(List<String> fields, Field field) {
+            Integer index = indexes.get(field);
+            if (index == null || index >= fields.size()) {
+                return null;
+            }
+            String value = fields.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        /**
+         * Accepts "1234.56", "-1,234.56", "$12.00" and accounting style "(12.00)"
+         */
+        private static BigDecimal parseAmount(String text) {
+            String cleaned = text.replace("$", "").replace(",", "").replace(" ", "");
+            boolean negative = cleaned.startsWith("(") && cleaned.endsWith(")");
+            if (negative) {
+                cleaned = cleaned.substring(1, cleaned.length() - 1);
+            }
+            try {
+                BigDecimal amount = new BigDecimal(cleaned);
+                if (amount.scale() > 2) {
+                    throw new IllegalArgumentException("amount '" + text + "' has more than two decimals");
+                }
+                return negative ? amount.negate() : amount;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("invalid amount '" + text + "'");
+            }
+        }
+
+        private static Expense.TransactionType parseType(String text) {
+            if (text == null) {
+                return null;
+            }
+            return switch (text.toLowerCase(Locale.ROOT)) {
+                case "income", "credit", "deposit" -> Expense.TransactionType.INCOME;
+                case "expense", "debit", "withdrawal" -> Expense.TransactionType.EXPENSE;
+                default -> throw new IllegalArgumentException("unknown type '" + text + "'");
+            };
+        }
+
+        /**
+         * Matches the enum name or display name; anything else falls back to OTHER
+         * (income defaults to SALARY), since bank categories rarely line up with ours
+         */
+        private static Expense.Category parseCategory(String text, Expense.TransactionType type) {
+            if (text != null) {
+                for (Expense.Category category : Expense.Category.values()) {
+                    if (category.name().equalsIgnoreCase(text) || category.getDisplayName().equalsIgnoreCase(text)) {
+                        return category;
+                    }
+                }
+            }
+            return type == Expense.TransactionType.INCOME ? Expense.Category.SALARY : Expense.Category.OTHER;
+        }
+    }
+
+    /**
+     * Counts bytes as they are consumed, for progress reporting
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private final AtomicLong count;
+
+        CountingInputStream(InputStream in, AtomicLong count) {
+            super(in);
+            this.count = count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count.addAndGet(n);
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.expensetracker.service;
+
+import com.example.expensetracker.model.Expense;
+
+import java.util.List;
+
+/**
+ * One keyset page of transactions. nextCursor is null on the last page.
+ */
+public record ExpensePage(List<Expense> expenses, ExpenseCursor nextCursor) {
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -1,30 +1,125 @@
 package com.example.expensetracker.service;
 
 import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.ExpenseSummary;
+import com.example.expensetracker.model.ExpenseValues;
+import com.example.expensetracker.model.MonthlyRollup;
+import com.example.expensetracker.model.TransactionStats;
 import com.example.expensetracker.model.User;
 import com.example.expensetracker.repository.ExpenseRepository;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.PredicateSpecification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.IntSupplier;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
 
 @Service
 @Transactional
 public class ExpenseService {
 
+    /** Ids per owner-scoped statement in a bulk write, keeping IN lists within driver limits */
+    private static final int BULK_CHUNK_SIZE = 500;
+
     private final ExpenseRepository expenseRepository;
+    private final UserBalanceService userBalanceService;
+    private final MonthlyRollupService monthlyRollupService;
+    private final SearchIndexService searchIndexService;
+    private final LedgerSnapshotCache ledgerSnapshotCache;
+    private final List<ExpenseChangeListener> changeListeners;
 
-    public ExpenseService(ExpenseRepository expenseRepository) {
+    public ExpenseService(ExpenseRepository expenseRepository,
+                          UserBalanceService userBalanceService,
+                          MonthlyRollupService monthlyRollupService,
+                          SearchIndexService searchIndexService,
+                          LedgerSnapshotCache ledgerSnapshotCache,
+                          List<ExpenseChangeListener> changeListeners) {
         this.expenseRepository = expenseRepository;
+        this.userBalanceService = userBalanceService;
+        this.monthlyRollupService = monthlyRollupService;
+        this.searchIndexService = searchIndexService;
+        this.ledgerSnapshotCache = ledgerSnapshotCache;
+        this.changeListeners = changeListeners;
     }
 
     /**
-     * Save or update an expense
+     * Save or update an expense.
+     * For an existing row the stored values are read first, so the user's derived data
+     * is adjusted by the difference; it is only rebuilt if the row was not found under its owner.
      */
     public Expense saveExpense(Expense expense) {
-        return expenseRepository.save(expense);
+        if (expense.getId() == null) {
+            Expense saved = expenseRepository.save(expense);
+            ExpenseValues added = ExpenseValues.of(saved);
+            changeListeners.forEach(listener -> listener.onAdded(added));
+            return saved;
+        }
+
+        Optional<ExpenseValues> before = expenseRepository.findOwnedValues(expense.getId(), expense.getUser().getId());
+        Expense saved = expenseRepository.save(expense);
+        if (before.isPresent()) {
+            ExpenseValues after = ExpenseValues.of(saved);
+            changeListeners.forEach(listener -> listener.onChanged(before.get(), after));
+        } else {
+            rebuildDerivedData(saved.getUser());
+        }
+        return saved;
+    }
+
+    /**
+     * Copy the editable fields from details onto one of the owner's expenses with a single
+     * owner-scoped UPDATE, and apply the old-vs-new difference to the user's derived data.
+     * Returns false, changing nothing, if the expense does not exist or belongs to someone else.
+     */
+    public boolean updateExpense(Long id, User owner, Expense details) {
+        // The old values feed the incremental aggregates; the read is also the ownership check
+        Optional<ExpenseValues> before = expenseRepository.findOwnedValues(id, owner.getId());
+        if (before.isEmpty()) {
+            return false;
+        }
+
+        int updated = expenseRepository.updateOwned(id, owner.getId(), details.getDescription(),
+                details.getAmount(), details.getType(), details.getCategory(), details.getDate(), details.getNotes());
+        if (updated == 0) {
+            return false;
+        }
+
+        ExpenseValues after = new ExpenseValues(id, owner.getId(), details.getType(), details.getCategory(),
+                details.getAmount(), details.getDate(), details.getDescription(), details.getNotes());
+        changeListeners.forEach(listener -> listener.onChanged(before.get(), after));
+        return true;
+    }
+
+    /**
+     * Apply rows that were inserted outside JPA (the CSV import) to the user's derived data,
+     * as one netted bulk change instead of a rebuild
+     */
+    public void applyInserted(User owner, List<ExpenseValues> inserted) {
+        if (inserted.isEmpty()) {
+            return;
+        }
+        ExpenseBulkChange.Deltas deltas = new ExpenseBulkChange.Deltas();
+        inserted.forEach(deltas::add);
+        ExpenseBulkChange change = new ExpenseBulkChange(owner, deltas.nonZero(), List.of(), inserted);
+        changeListeners.forEach(listener -> listener.onBulkChange(change));
+    }
+
+    /**
+     * Recompute balances, rollups and any other derived data for a user from the expenses table
+     */
+    public void rebuildDerivedData(User user) {
+        changeListeners.forEach(listener -> listener.onLedgerReset(user));
     }
 
     /**
@@ -34,6 +129,91 @@ public class ExpenseService {
         return expenseRepository.findByUserOrderByDateDesc(user);
     }
 
+    /**
+     * Get the expenses for a user that match the filter, most recent first.
+     * All criteria are evaluated in a single database query.
+     */
+    @Transactional(readOnly = true)
+    public List<Expense> findExpenses(User user, ExpenseFilter filter) {
+        return expenseRepository.findAll(filter.toSpecification(user), Sort.by(Sort.Direction.DESC, "date"));
+    }
+
+    /**
+     * Get one page of the filtered expenses, most recent first.
+     * Pass a null cursor for the first page; the returned page carries the cursor for the next one.
+     */
+    @Transactional(readOnly = true)
+    public ExpensePage getExpensePage(User user, ExpenseFilter filter, ExpenseCursor after, int size) {
+        if (ledgerSnapshotCache.isEnabled()) {
+            Optional<LedgerSnapshot> snapshot = ledgerSnapshotCache.find(user, countUserTransactions(user));
+            if (snapshot.isPresent()) {
+                return getExpensePage(snapshot.get(), filter, after, size);
+            }
+        }
+
+        // Fetch one extra row to know whether another page exists without a COUNT query
+        List<Expense> rows = expenseRepository.findKeysetPage(filter.toSpecification(user),
+                after != null ? after.date() : null,
+                after != null ? after.id() : null,
+                size + 1);
+
+        if (rows.size() <= size) {
+            return new ExpensePage(rows, null);
+        }
+        List<Expense> page = rows.subList(0, size);
+        return new ExpensePage(page, ExpenseCursor.of(page.get(size - 1)));
+    }
+
+    /**
+     * Filter over the in-memory snapshot, then load entities only for the rows on the page
+     */
+    private ExpensePage getExpensePage(LedgerSnapshot snapshot, ExpenseFilter filter, ExpenseCursor after, int size) {
+        long[] ids = snapshot.page(filter, after, size + 1);
+        int pageSize = Math.min(ids.length, size);
+
+        List<Long> pageIds = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            pageIds.add(ids[i]);
+        }
+        List<Expense> page = loadInOrder(pageIds);
+
+        if (ids.length <= size || page.isEmpty()) {
+            return new ExpensePage(page, null);
+        }
+        return new ExpensePage(page, ExpenseCursor.of(page.get(page.size() - 1)));
+    }
+
+    /**
+     * Search descriptions and notes for every token of the query, best match first.
+     * Ranking comes from the search index; only the matching rows are loaded.
+     */
+    public List<Expense> searchExpenses(User user, String query, int limit) {
+        return loadInOrder(searchIndexService.search(user, query, limit));
+    }
+
+    /**
+     * Load expenses by id in one query, preserving the order of the ids
+     */
+    private List<Expense> loadInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Expense> byId = new HashMap<>();
+        for (Expense expense : expenseRepository.findAllById(ids)) {
+            byId.put(expense.getId(), expense);
+        }
+
+        List<Expense> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Expense expense = byId.get(id);
+            if (expense != null) {
+                results.add(expense);
+            }
+        }
+        return results;
+    }
+
     /**
      * Get a single expense by ID
      */
@@ -53,17 +233,162 @@ public class ExpenseService {
      * Delete an expense by ID
      */
     public void deleteExpense(Long id) {
-        if (!expenseRepository.existsById(id)) {
-            throw new RuntimeException("Cannot delete. Expense not found with id: " + id);
+        Expense expense = expenseRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Cannot delete. Expense not found with id: " + id));
+        deleteExpense(expense);
+    }
+
+    /**
+     * Delete one of the owner's expenses with a single owner-scoped DELETE.
+     * Returns false, deleting nothing, if the expense does not exist or belongs to someone else.
+     */
+    public boolean deleteExpense(Long id, User owner) {
+        // The old values feed the incremental aggregates; the read is also the ownership check
+        Optional<ExpenseValues> removed = expenseRepository.findOwnedValues(id, owner.getId());
+        if (removed.isEmpty() || expenseRepository.deleteOwned(id, owner.getId()) == 0) {
+            return false;
         }
-        expenseRepository.deleteById(id);
+        changeListeners.forEach(listener -> listener.onRemoved(removed.get()));
+        return true;
     }
 
     /**
      * Delete an expense (entity)
      */
     public void deleteExpense(Expense expense) {
+        ExpenseValues removed = ExpenseValues.of(expense);
         expenseRepository.delete(expense);
+        changeListeners.forEach(listener -> listener.onRemoved(removed));
+    }
+
+    /**
+     * Delete those of the given expenses that belong to the owner, with owner-scoped
+     * set-based DELETEs. Returns the number of rows deleted.
+     */
+    public int deleteExpenses(User owner, Collection<Long> ids) {
+        return bulkWrite(owner, ids, chunk -> expenseRepository.deleteAllOwned(owner.getId(), chunk), null);
+    }
+
+    /**
+     * Delete every expense of the owner matching the filter with a single DELETE
+     */
+    public int deleteExpenses(User owner, ExpenseFilter filter) {
+        PredicateSpecification<Expense> spec = filter.toPredicateSpecification(owner);
+        return bulkWrite(owner, spec, () -> expenseRepository.deleteMatching(spec), null);
+    }
+
+    /**
+     * Move those of the given expenses that belong to the owner to another category.
+     * Returns the number of rows updated.
+     */
+    public int recategorizeExpenses(User owner, Collection<Long> ids, Expense.Category category) {
+        return bulkWrite(owner, ids, chunk -> expenseRepository.updateCategoryOwned(owner.getId(), chunk, category),
+                toCategory(category));
+    }
+
+    /**
+     * Move every expense of the owner matching the filter to another category with a single UPDATE
+     */
+    public int recategorizeExpenses(User owner, ExpenseFilter filter, Expense.Category category) {
+        PredicateSpecification<Expense> spec = filter.toPredicateSpecification(owner);
+        return bulkWrite(owner, spec, () -> expenseRepository.updateCategoryMatching(spec, category),
+                toCategory(category));
+    }
+
+    /**
+     * Change the transaction type of those of the given expenses that belong to the owner.
+     * Returns the number of rows updated.
+     */
+    public int retypeExpenses(User owner, Collection<Long> ids, Expense.TransactionType type) {
+        return bulkWrite(owner, ids, chunk -> expenseRepository.updateTypeOwned(owner.getId(), chunk, type),
+                toType(type));
+    }
+
+    /**
+     * Change the transaction type of every expense of the owner matching the filter with a single UPDATE
+     */
+    public int retypeExpenses(User owner, ExpenseFilter filter, Expense.TransactionType type) {
+        PredicateSpecification<Expense> spec = filter.toPredicateSpecification(owner);
+        return bulkWrite(owner, spec, () -> expenseRepository.updateTypeMatching(spec, type), toType(type));
+    }
+
+    private static UnaryOperator<MonthlyRollup> toCategory(Expense.Category category) {
+        return bucket -> new MonthlyRollup(bucket.getUserId(), bucket.getYear(), bucket.getMonth(),
+                bucket.getType(), category, bucket.getTotal(), bucket.getTransactionCount());
+    }
+
+    private static UnaryOperator<MonthlyRollup> toType(Expense.TransactionType type) {
+        return bucket -> new MonthlyRollup(bucket.getUserId(), bucket.getYear(), bucket.getMonth(),
+                type, bucket.getCategory(), bucket.getTotal(), bucket.getTransactionCount());
+    }
+
+    /**
+     * Run an owner-scoped statement over the ids in chunks, all in the current transaction.
+     * Each chunk's rows are locked, then summed per rollup bucket, then written, so their
+     * values cannot change between the sum and the write. The buckets are subtracted and,
+     * for updates, added back where moveBucket places them. Listeners then receive the
+     * netted deltas once instead of one callback per row.
+     * A null moveBucket means the statement deletes the rows.
+     */
+    private int bulkWrite(User owner, Collection<Long> ids, ToIntFunction<List<Long>> statement,
+                          UnaryOperator<MonthlyRollup> moveBucket) {
+        List<Long> selected = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<Long> locked = new ArrayList<>();
+        ExpenseBulkChange.Deltas deltas = new ExpenseBulkChange.Deltas();
+        int affected = 0;
+
+        for (int from = 0; from < selected.size(); from += BULK_CHUNK_SIZE) {
+            List<Long> chunk = expenseRepository.lockOwnedIds(owner.getId(),
+                    selected.subList(from, Math.min(from + BULK_CHUNK_SIZE, selected.size())));
+            if (chunk.isEmpty()) {
+                continue;
+            }
+            locked.addAll(chunk);
+            addBuckets(deltas, expenseRepository.summarizeOwnedByMonth(owner.getId(), chunk), moveBucket);
+            affected += statement.applyAsInt(chunk);
+        }
+
+        publishBulkChange(owner, deltas, moveBucket == null ? locked : List.of(), affected);
+        return affected;
+    }
+
+    /**
+     * Run one set-based statement over the rows matching spec. The owner's balance row is
+     * locked first, which holds off inserts and deletes on the ledger, and the matching rows
+     * next, which holds off edits to them; the rows summed are then exactly the rows written.
+     * Ids are read only under that lock; a delete passes them on to the search index.
+     */
+    private int bulkWrite(User owner, PredicateSpecification<Expense> spec, IntSupplier statement,
+                          UnaryOperator<MonthlyRollup> moveBucket) {
+        userBalanceService.lockBalance(owner);
+        List<Long> locked = expenseRepository.findIdsForUpdate(spec);
+        if (locked.isEmpty()) {
+            return 0;
+        }
+
+        ExpenseBulkChange.Deltas deltas = new ExpenseBulkChange.Deltas();
+        addBuckets(deltas, expenseRepository.summarizeByMonth(spec), moveBucket);
+        int affected = statement.getAsInt();
+
+        publishBulkChange(owner, deltas, moveBucket == null ? locked : List.of(), affected);
+        return affected;
+    }
+
+    private static void addBuckets(ExpenseBulkChange.Deltas deltas, List<MonthlyRollup> buckets,
+                                   UnaryOperator<MonthlyRollup> moveBucket) {
+        for (MonthlyRollup bucket : buckets) {
+            deltas.subtract(bucket);
+            if (moveBucket != null) {
+                deltas.add(moveBucket.apply(bucket));
+            }
+        }
+    }
+
+    private void publishBulkChange(User owner, ExpenseBulkChange.Deltas deltas, List<Long> deletedIds, int affected) {
+        if (affected > 0) {
+            ExpenseBulkChange change = new ExpenseBulkChange(owner, deltas.nonZero(), deletedIds, List.of());
+            changeListeners.forEach(listener -> listener.onBulkChange(change));
+        }
     }
 
     /**
@@ -86,9 +411,36 @@ public class ExpenseService {
      * Calculate balance (income - expenses) for a user
      */
     public BigDecimal calculateBalance(User user) {
-        BigDecimal income = calculateTotalIncome(user);
-        BigDecimal expenses = calculateTotalExpenses(user);
-        return income.subtract(expenses);
+        return getSummary(user).balance();
+    }
+
+    /**
+     * Get income, expense and balance totals plus count and date range for a user.
+     * Served from the maintained user_balances row (a primary key read).
+     */
+    public ExpenseSummary getSummary(User user) {
+        return userBalanceService.getSummary(user);
+    }
+
+    /**
+     * Get the monthly (year, month, type, category) buckets for a user, oldest first
+     */
+    public List<MonthlyRollup> getMonthlyRollups(User user) {
+        return monthlyRollupService.getRollups(user);
+    }
+
+    /**
+     * Calculate income for a single month, read from the monthly rollups
+     */
+    public BigDecimal calculateMonthlyIncome(User user, int year, int month) {
+        return monthlyRollupService.getMonthlyTotal(user, year, month, Expense.TransactionType.INCOME);
+    }
+
+    /**
+     * Calculate expenses for a single month, read from the monthly rollups
+     */
+    public BigDecimal calculateMonthlyExpenses(User user, int year, int month) {
+        return monthlyRollupService.getMonthlyTotal(user, year, month, Expense.TransactionType.EXPENSE);
     }
 
     /**
@@ -109,15 +461,46 @@ public class ExpenseService {
      * Check if an expense belongs to a specific user (for security)
      */
     public boolean isExpenseOwnedByUser(Long expenseId, User user) {
-        Optional<Expense> expense = expenseRepository.findById(expenseId);
-        return expense.isPresent() && expense.get().getUser().getId().equals(user.getId());
+        return expenseRepository.findOwnedValues(expenseId, user.getId()).isPresent();
     }
 
     /**
-     * Count total number of transactions for a user
+     * Count total number of transactions for a user (maintained counter, no scan)
      */
     public long countUserTransactions(User user) {
-        return expenseRepository.findByUser(user).size();
+        return getSummary(user).transactionCount();
+    }
+
+    /**
+     * Get transaction counts overall, per type and per category, read from the maintained aggregates
+     */
+    public TransactionStats getTransactionStats(User user) {
+        return new TransactionStats(countUserTransactions(user),
+                monthlyRollupService.countByType(user),
+                monthlyRollupService.countByCategory(user));
+    }
+
+    /**
+     * Count transactions within a month, read from the monthly rollups
+     */
+    public long countTransactionsInMonth(User user, int year, int month) {
+        return monthlyRollupService.countInMonth(user, year, month);
+    }
+
+    /**
+     * Count transactions between two dates (inclusive) with an indexed COUNT query
+     */
+    @Transactional(readOnly = true)
+    public long countTransactionsBetween(User user, LocalDate startDate, LocalDate endDate) {
+        return expenseRepository.countByUserAndDateBetween(user, startDate, endDate);
+    }
+
+    /**
+     * Count the transactions matching a dashboard filter with a single COUNT query
+     */
+    @Transactional(readOnly = true)
+    public long countTransactions(User user, ExpenseFilter filter) {
+        return expenseRepository.count(filter.toSpecification(user));
     }
 
     /**
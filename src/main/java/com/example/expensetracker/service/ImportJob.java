@@ -0,0 +1,83 @@
+package com.example.expensetracker.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mutable progress of one running import. Written by the import thread and
+ * read by status requests, so counters are atomic and the rest is guarded by this.
+ */
+final class ImportJob {
+
+    /** Only the first rejections are kept; the count covers all of them */
+    private static final int MAX_ERRORS = 100;
+
+    private final String id = UUID.randomUUID().toString();
+    private final Long userId;
+    private final long bytesTotal;
+
+    final AtomicLong bytesRead = new AtomicLong();
+    final AtomicLong rowsRead = new AtomicLong();
+    final AtomicLong rowsImported = new AtomicLong();
+    final AtomicLong rowsRejected = new AtomicLong();
+    /** Set while a chunk is committed but not yet applied to the derived data; import thread only */
+    boolean derivedDataStale;
+
+    private final List<String> errors = new ArrayList<>();
+    private ImportStatus.State state = ImportStatus.State.QUEUED;
+    private Instant startedAt;
+    private Instant finishedAt;
+
+    ImportJob(Long userId, long bytesTotal) {
+        this.userId = userId;
+        this.bytesTotal = bytesTotal;
+    }
+
+    String getId() {
+        return id;
+    }
+
+    Long getUserId() {
+        return userId;
+    }
+
+    synchronized void start() {
+        state = ImportStatus.State.RUNNING;
+        startedAt = Instant.now();
+    }
+
+    synchronized void reject(long line, String reason) {
+        rowsRejected.incrementAndGet();
+        if (errors.size() < MAX_ERRORS) {
+            errors.add("Line " + line + ": " + reason);
+        }
+    }
+
+    synchronized void finish(ImportStatus.State finalState, String failure) {
+        state = finalState;
+        finishedAt = Instant.now();
+        if (failure != null) {
+            errors.add(failure);
+        }
+    }
+
+    synchronized boolean isFinishedBefore(Instant cutoff) {
+        return finishedAt != null && finishedAt.isBefore(cutoff);
+    }
+
+    synchronized ImportStatus toStatus() {
+        long read = bytesRead.get();
+        return new ImportStatus(id, state, read, bytesTotal, percentComplete(read), rowsRead.get(),
+                rowsImported.get(), rowsRejected.get(), List.copyOf(errors), startedAt, finishedAt);
+    }
+
+    private int percentComplete(long read) {
+        if (state == ImportStatus.State.COMPLETED) {
+            return 100;
+        }
+        return bytesTotal <= 0 ? 0 : (int) Math.min(99, read * 100 / bytesTotal);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.expensetracker.service;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Point-in-time progress of a CSV import, as returned by the status API.
+ * Progress is measured in bytes of the uploaded file read so far.
+ */
+public record ImportStatus(String id,
+                           ImportStatus.State state,
+                           long bytesRead,
+                           long bytesTotal,
+                           int percentComplete,
+                           long rowsRead,
+                           long rowsImported,
+                           long rowsRejected,
+                           List<String> errors,
+                           Instant startedAt,
+                           Instant finishedAt) {
+
+    public enum State {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.expensetracker.service;
+
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.Money;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable, column-oriented copy of one user's ledger.
+ * Rows are stored in (date DESC, id DESC) order in primitive arrays, with descriptions
+ * dictionary-encoded, so dashboard filters run without creating Expense entities.
+ */
+public final class LedgerSnapshot {
+
+    private final long[] ids;
+    private final int[] epochDays;
+    private final long[] amountCents;
+    private final byte[] types;
+    private final byte[] categories;
+    private final int[] descriptionCodes;
+    private final String[] dictionary;
+
+    private LedgerSnapshot(long[] ids, int[] epochDays, long[] amountCents, byte[] types, byte[] categories,
+                           int[] descriptionCodes, String[] dictionary) {
+        this.ids = ids;
+        this.epochDays = epochDays;
+        this.amountCents = amountCents;
+        this.types = types;
+        this.categories = categories;
+        this.descriptionCodes = descriptionCodes;
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Build from [id, date, amount, type, category, description] rows already sorted by (date DESC, id DESC)
+     */
+    public static LedgerSnapshot of(List<Object[]> rows) {
+        int size = rows.size();
+        long[] ids = new long[size];
+        int[] epochDays = new int[size];
+        long[] amountCents = new long[size];
+        byte[] types = new byte[size];
+        byte[] categories = new byte[size];
+        int[] descriptionCodes = new int[size];
+        Map<String, Integer> codes = new HashMap<>();
+
+        for (int i = 0; i < size; i++) {
+            Object[] row = rows.get(i);
+            ids[i] = (Long) row[0];
+            epochDays[i] = Math.toIntExact(((LocalDate) row[1]).toEpochDay());
+            amountCents[i] = Money.toCents((BigDecimal) row[2]);
+            types[i] = (byte) ((Expense.TransactionType) row[3]).ordinal();
+            categories[i] = (byte) ((Expense.Category) row[4]).ordinal();
+            descriptionCodes[i] = codes.computeIfAbsent((String) row[5], d -> codes.size());
+        }
+
+        String[] dictionary = new String[codes.size()];
+        codes.forEach((description, code) -> dictionary[code] = description);
+
+        return new LedgerSnapshot(ids, epochDays, amountCents, types, categories, descriptionCodes, dictionary);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Approximate heap footprint, used to bound the cache by memory
+     */
+    public long weightBytes() {
+        long rows = (long) ids.length * (Long.BYTES + Integer.BYTES + Long.BYTES + 1 + 1 + Integer.BYTES);
+        long strings = 0;
+        for (String description : dictionary) {
+            // String header + array header + Latin-1/UTF-16 payload, roughly
+            strings += 56 + (long) description.length() * 2;
+        }
+        return rows + strings;
+    }
+
+    /**
+     * Ids of up to limit matching rows after the cursor, in (date DESC, id DESC) order
+     */
+    public long[] page(ExpenseFilter filter, ExpenseCursor after, int limit) {
+        RowMatcher matcher = new RowMatcher(filter);
+        long[] result = new long[Math.min(limit, ids.length)];
+        int found = 0;
+
+        for (int row = startRow(after); row < ids.length && found < limit; row++) {
+            if (matcher.matches(row)) {
+                result[found++] = ids[row];
+            }
+        }
+        return found == result.length ? result : Arrays.copyOf(result, found);
+    }
+
+    /**
+     * Number of matching rows
+     */
+    public long count(ExpenseFilter filter) {
+        RowMatcher matcher = new RowMatcher(filter);
+        long count = 0;
+        for (int row = 0; row < ids.length; row++) {
+            if (matcher.matches(row)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * First row strictly after the cursor (binary search over the sort order)
+     */
+    private int startRow(ExpenseCursor after) {
+        if (after == null) {
+            return 0;
+        }
+        int day = Math.toIntExact(after.date().toEpochDay());
+        long id = after.id();
+        int low = 0;
+        int high = ids.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            boolean beforeOrAtCursor = epochDays[mid] > day || (epochDays[mid] == day && ids[mid] >= id);
+            if (beforeOrAtCursor) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * The filter compiled against this snapshot's columns.
+     * The description search is evaluated once per dictionary entry, not once per row.
+     */
+    private final class RowMatcher {
+
+        private final int type;
+        private final int category;
+        private final boolean hasDateRange;
+        private final int startDay;
+        private final int endDay;
+        private final boolean[] descriptionMatches;
+
+        RowMatcher(ExpenseFilter filter) {
+            this.type = filter.type() != null ? filter.type().ordinal() : -1;
+            this.category = filter.category() != null ? filter.category().ordinal() : -1;
+            this.hasDateRange = filter.hasDateRange();
+            this.startDay = hasDateRange ? Math.toIntExact(filter.startDate().toEpochDay()) : 0;
+            this.endDay = hasDateRange ? Math.toIntExact(filter.endDate().toEpochDay()) : 0;
+
+            if (filter.search() != null) {
+                String needle = filter.search().toLowerCase(Locale.ROOT);
+                descriptionMatches = new boolean[dictionary.length];
+                for (int code = 0; code < dictionary.length; code++) {
+                    descriptionMatches[code] = dictionary[code].toLowerCase(Locale.ROOT).contains(needle);
+                }
+            } else {
+                descriptionMatches = null;
+            }
+        }
+
+        boolean matches(int row) {
+            return (type < 0 || types[row] == type)
+                    && (category < 0 || categories[row] == category)
+                    && (!hasDateRange || (epochDays[row] >= startDay && epochDays[row] <= endDay))
+                    && (descriptionMatches == null || descriptionMatches[descriptionCodes[row]]);
+        }
+    }
+}
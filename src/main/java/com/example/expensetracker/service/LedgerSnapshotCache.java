@@ -0,0 +1,190 @@
+package com.example.expensetracker.service;
+
+import com.example.expensetracker.model.ExpenseValues;
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.repository.ExpenseRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Optional cache of {@link LedgerSnapshot}s for users with large ledgers.
+ * Snapshots are dropped when the user's expenses change (after the write commits)
+ * and least recently used snapshots are evicted once the total weight exceeds the limit.
+ */
+@Component
+public class LedgerSnapshotCache implements ExpenseChangeListener {
+
+    private final ExpenseRepository expenseRepository;
+    /**
+     * Read-only transaction of its own for each build, so the ledger is read after the build token
+     * is taken rather than from a caller's transaction that may have started before it
+     */
+    private final TransactionTemplate buildTransaction;
+    private final boolean enabled;
+    private final long minRows;
+    private final long maxWeightBytes;
+
+    private final LinkedHashMap<Long, LedgerSnapshot> snapshots = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalWeightBytes;
+
+    /**
+     * Identity token per user, taken when a build starts and removed on invalidation or eviction,
+     * so a build that raced with a write is not stored. Only users with a build in progress or
+     * a cached snapshot have one.
+     */
+    private final Map<Long, Object> buildTokens = new ConcurrentHashMap<>();
+    /** Removed once no build for the user is waiting, which a ReentrantLock can tell */
+    private final Map<Long, ReentrantLock> buildLocks = new ConcurrentHashMap<>();
+
+    public LedgerSnapshotCache(ExpenseRepository expenseRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${expensetracker.ledger-snapshot.enabled:false}") boolean enabled,
+                               @Value("${expensetracker.ledger-snapshot.min-rows:5000}") long minRows,
+                               @Value("${expensetracker.ledger-snapshot.max-weight:64MB}") DataSize maxWeight) {
+        this.expenseRepository = expenseRepository;
+        this.buildTransaction = new TransactionTemplate(transactionManager);
+        this.buildTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.buildTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.minRows = minRows;
+        this.maxWeightBytes = maxWeight.toBytes();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Snapshot of the user's ledger, or empty when snapshots are disabled
+     * or the ledger is too small to be worth caching
+     */
+    public Optional<LedgerSnapshot> find(User user, long transactionCount) {
+        if (!enabled || transactionCount < minRows) {
+            return Optional.empty();
+        }
+
+        Long userId = user.getId();
+        LedgerSnapshot cached = lookup(userId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        // One build per user at a time; concurrent requests wait and reuse it
+        ReentrantLock buildLock = buildLocks.computeIfAbsent(userId, id -> new ReentrantLock());
+        buildLock.lock();
+        try {
+            cached = lookup(userId);
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+            // Token first, then read: a write committing after this point removes the token,
+            // so a snapshot that misses it is not stored
+            Object token = buildTokens.computeIfAbsent(userId, id -> new Object());
+            LedgerSnapshot built = buildTransaction.execute(status ->
+                    LedgerSnapshot.of(expenseRepository.findLedgerColumns(user)));
+            store(userId, built, token);
+            return Optional.of(built);
+        } finally {
+            buildLock.unlock();
+            if (!buildLock.hasQueuedThreads()) {
+                buildLocks.remove(userId, buildLock);
+            }
+        }
+    }
+
+    public void invalidate(Long userId) {
+        buildTokens.remove(userId);
+        synchronized (snapshots) {
+            LedgerSnapshot removed = snapshots.remove(userId);
+            if (removed != null) {
+                totalWeightBytes -= removed.weightBytes();
+            }
+        }
+    }
+
+    @Override
+    public void onAdded(ExpenseValues expense) {
+        invalidateAfterCommit(expense.userId());
+    }
+
+    @Override
+    public void onRemoved(ExpenseValues expense) {
+        invalidateAfterCommit(expense.userId());
+    }
+
+    @Override
+    public void onChanged(ExpenseValues before, ExpenseValues after) {
+        invalidateAfterCommit(after.userId());
+    }
+
+    @Override
+    public void onBulkChange(ExpenseBulkChange change) {
+        invalidateAfterCommit(change.user().getId());
+    }
+
+    @Override
+    public void onLedgerReset(User user) {
+        invalidateAfterCommit(user.getId());
+    }
+
+    /**
+     * Invalidate now, so this transaction does not read a stale snapshot,
+     * and again after commit, so a snapshot built from pre-commit data is discarded
+     */
+    private void invalidateAfterCommit(Long userId) {
+        invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(userId);
+                }
+            });
+        }
+    }
+
+    private LedgerSnapshot lookup(Long userId) {
+        synchronized (snapshots) {
+            return snapshots.get(userId);
+        }
+    }
+
+    private void store(Long userId, LedgerSnapshot snapshot, Object token) {
+        long weight = snapshot.weightBytes();
+        if (weight > maxWeightBytes) {
+            buildTokens.remove(userId, token);
+            return;
+        }
+        synchronized (snapshots) {
+            if (buildTokens.get(userId) != token) {
+                return;
+            }
+            LedgerSnapshot previous = snapshots.put(userId, snapshot);
+            if (previous != null) {
+                totalWeightBytes -= previous.weightBytes();
+            }
+            totalWeightBytes += weight;
+
+            Iterator<Map.Entry<Long, LedgerSnapshot>> eldest = snapshots.entrySet().iterator();
+            while (totalWeightBytes > maxWeightBytes && eldest.hasNext()) {
+                Map.Entry<Long, LedgerSnapshot> evicted = eldest.next();
+                eldest.remove();
+                totalWeightBytes -= evicted.getValue().weightBytes();
+                buildTokens.remove(evicted.getKey());
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.expensetracker.service;
+
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.ExpenseValues;
+import com.example.expensetracker.model.MonthlyRollup;
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.repository.ExpenseRepository;
+import com.example.expensetracker.repository.MonthlyRollupRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the monthly_rollups table: one row per (user, year, month, type, category).
+ * Change callbacks run inside the transaction of the expense write they describe.
+ */
+@Service
+@Transactional
+public class MonthlyRollupService implements ExpenseChangeListener {
+
+    private final MonthlyRollupRepository monthlyRollupRepository;
+    private final ExpenseRepository expenseRepository;
+
+    public MonthlyRollupService(MonthlyRollupRepository monthlyRollupRepository,
+                                ExpenseRepository expenseRepository) {
+        this.monthlyRollupRepository = monthlyRollupRepository;
+        this.expenseRepository = expenseRepository;
+    }
+
+    /**
+     * All buckets for a user, oldest month first
+     */
+    @Transactional(readOnly = true)
+    public List<MonthlyRollup> getRollups(User user) {
+        return monthlyRollupRepository.findByUserId(user.getId());
+    }
+
+    /**
+     * Buckets for a single month
+     */
+    @Transactional(readOnly = true)
+    public List<MonthlyRollup> getRollups(User user, int year, int month) {
+        return monthlyRollupRepository.findByUserIdAndMonth(user.getId(), year, month);
+    }
+
+    /**
+     * Total of one transaction type within a month
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal getMonthlyTotal(User user, int year, int month, Expense.TransactionType type) {
+        BigDecimal total = monthlyRollupRepository.sumByUserIdAndMonthAndType(user.getId(), year, month, type);
+        return total != null ? total : BigDecimal.ZERO;
+    }
+
+    /**
+     * Transaction count per type; types without transactions map to 0
+     */
+    @Transactional(readOnly = true)
+    public Map<Expense.TransactionType, Long> countByType(User user) {
+        Map<Expense.TransactionType, Long> counts = new EnumMap<>(Expense.TransactionType.class);
+        for (Expense.TransactionType type : Expense.TransactionType.values()) {
+            counts.put(type, 0L);
+        }
+        for (Object[] row : monthlyRollupRepository.countByType(user.getId())) {
+            counts.put((Expense.TransactionType) row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    /**
+     * Transaction count per category; categories without transactions map to 0
+     */
+    @Transactional(readOnly = true)
+    public Map<Expense.Category, Long> countByCategory(User user) {
+        Map<Expense.Category, Long> counts = new EnumMap<>(Expense.Category.class);
+        for (Expense.Category category : Expense.Category.values()) {
+            counts.put(category, 0L);
+        }
+        for (Object[] row : monthlyRollupRepository.countByCategory(user.getId())) {
+            counts.put((Expense.Category) row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    /**
+     * Transaction count within one month
+     */
+    @Transactional(readOnly = true)
+    public long countInMonth(User user, int year, int month) {
+        return monthlyRollupRepository.countByUserIdAndMonth(user.getId(), year, month);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onAdded(ExpenseValues expense) {
+        adjust(expense, expense.amount(), 1);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onRemoved(ExpenseValues expense) {
+        adjust(expense, expense.amount().negate(), -1);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onChanged(ExpenseValues before, ExpenseValues after) {
+        if (sameBucket(before, after)) {
+            adjust(after, after.amount().subtract(before.amount()), 0);
+        } else {
+            adjust(before, before.amount().negate(), -1);
+            adjust(after, after.amount(), 1);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onBulkChange(ExpenseBulkChange change) {
+        for (MonthlyRollup delta : change.deltas()) {
+            adjust(delta.getUserId(), delta.getYear(), delta.getMonth(), delta.getType(), delta.getCategory(),
+                    delta.getTotal(), delta.getTransactionCount());
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onLedgerReset(User user) {
+        rebuild(user);
+    }
+
+    /**
+     * Replace all of a user's buckets with ones recomputed from the expenses table
+     */
+    public void rebuild(User user) {
+        monthlyRollupRepository.deleteByUserId(user.getId());
+        monthlyRollupRepository.saveAll(expenseRepository.summarizeByMonth(user));
+    }
+
+    private static boolean sameBucket(ExpenseValues a, ExpenseValues b) {
+        return a.type() == b.type()
+                && a.category() == b.category()
+                && a.date().getYear() == b.date().getYear()
+                && a.date().getMonthValue() == b.date().getMonthValue();
+    }
+
+    /**
+     * Apply a delta to the expense's bucket
+     */
+    private void adjust(ExpenseValues expense, BigDecimal amount, long count) {
+        LocalDate date = expense.date();
+        adjust(expense.userId(), date.getYear(), date.getMonthValue(), expense.type(), expense.category(),
+                amount, count);
+    }
+
+    private void adjust(Long userId, int year, int month, Expense.TransactionType type, Expense.Category category,
+                        BigDecimal amount, long count) {
+        if (monthlyRollupRepository.addToBucket(userId, year, month, type, category, amount, count) == 0) {
+            // First write to the bucket. Ledgers that predate the rollups are rebuilt by
+            // MonthlyRollupBackfill, so a missing bucket had no rows and the delta is its whole
+            // content; the upsert keeps two concurrent first writers from both inserting.
+            monthlyRollupRepository.upsertBucket(userId, year, month, type, category, amount, count);
+        }
+    }
+}
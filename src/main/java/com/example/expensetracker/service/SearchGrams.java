@@ -0,0 +1,96 @@
+package com.example.expensetracker.service;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tokenizer for the transaction search index.
+ * Text is lowercased and split into runs of letters and digits. Tokens of three or more
+ * characters are indexed as their trigrams; shorter tokens are indexed whole.
+ */
+public final class SearchGrams {
+
+    static final int GRAM_LENGTH = 3;
+
+    /** Weight of a gram found in the description; notes count for 1 */
+    static final int DESCRIPTION_WEIGHT = 2;
+    static final int NOTES_WEIGHT = 1;
+
+    private SearchGrams() {
+    }
+
+    /**
+     * Grams of a transaction mapped to their weight.
+     * A gram present in both fields gets both weights.
+     */
+    public static Map<String, Integer> forDocument(String description, String notes) {
+        Map<String, Integer> weights = new HashMap<>();
+        for (String gram : indexGrams(description)) {
+            weights.merge(gram, DESCRIPTION_WEIGHT, Integer::sum);
+        }
+        for (String gram : indexGrams(notes)) {
+            weights.merge(gram, NOTES_WEIGHT, Integer::sum);
+        }
+        return weights;
+    }
+
+    /**
+     * Grams for a token query: every token must occur as a whole word or as part of one.
+     * Short tokens only match whole short words.
+     */
+    public static Set<String> forTokens(String query) {
+        return indexGrams(query);
+    }
+
+    /**
+     * Grams that any text containing term as a substring is guaranteed to have.
+     * Tokens shorter than three characters contribute nothing, so the result may be empty;
+     * callers must still verify matches, since grams can occur apart from each other.
+     */
+    public static Set<String> forSubstring(String term) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String token : tokenize(term)) {
+            if (token.length() >= GRAM_LENGTH) {
+                addTrigrams(token, grams);
+            }
+        }
+        return grams;
+    }
+
+    /**
+     * The lowercased tokens of a query, as the index sees them
+     */
+    public static List<String> tokens(String query) {
+        return List.of(tokenize(query));
+    }
+
+    private static Set<String> indexGrams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String token : tokenize(text)) {
+            if (token.length() < GRAM_LENGTH) {
+                grams.add(token);
+            } else {
+                addTrigrams(token, grams);
+            }
+        }
+        return grams;
+    }
+
+    private static void addTrigrams(String token, Set<String> grams) {
+        for (int i = 0; i + GRAM_LENGTH <= token.length(); i++) {
+            grams.add(token.substring(i, i + GRAM_LENGTH));
+        }
+    }
+
+    private static String[] tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return new String[0];
+        }
+        String normalized = text.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+        return normalized.isEmpty() ? new String[0] : normalized.split(" ");
+    }
+}
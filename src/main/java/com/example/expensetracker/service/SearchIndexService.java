@@ -0,0 +1,272 @@
+package com.example.expensetracker.service;
+
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.ExpenseValues;
+import com.example.expensetracker.model.SearchGram;
+import com.example.expensetracker.model.SearchIndexedUser;
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.repository.ExpenseRepository;
+import com.example.expensetracker.repository.ExpenseSpecifications;
+import com.example.expensetracker.repository.SearchGramRepository;
+import com.example.expensetracker.repository.SearchIndexedUserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Maintains the per-user n-gram index over expense descriptions and notes
+ * (search_grams) and answers ranked token queries from it.
+ * New users start out indexed; ledgers that predate the index are built by SearchIndexBackfill.
+ * Whole-ledger (re)builds run in batches that commit on their own; until one finishes the
+ * user has no search_indexed_users marker and searches scan instead.
+ */
+@Service
+@Transactional
+public class SearchIndexService implements ExpenseChangeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchIndexService.class);
+
+    /** Expenses read and indexed per transaction when rebuilding a whole ledger */
+    private static final int REINDEX_BATCH_SIZE = 500;
+
+    /** Expense ids per DELETE when dropping the postings of a bulk delete */
+    private static final int DELETE_BATCH_SIZE = 500;
+
+    private final SearchGramRepository searchGramRepository;
+    private final SearchIndexedUserRepository searchIndexedUserRepository;
+    private final ExpenseRepository expenseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor taskExecutor;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /** Users with a rebuild running, and those among them whose ledger was reset again meanwhile */
+    private final Set<Long> rebuilding = new HashSet<>();
+    private final Set<Long> rebuildAgain = new HashSet<>();
+
+    public SearchIndexService(SearchGramRepository searchGramRepository,
+                              SearchIndexedUserRepository searchIndexedUserRepository,
+                              ExpenseRepository expenseRepository,
+                              TransactionTemplate transactionTemplate,
+                              @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor) {
+        this.searchGramRepository = searchGramRepository;
+        this.searchIndexedUserRepository = searchIndexedUserRepository;
+        this.expenseRepository = expenseRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.taskExecutor = taskExecutor;
+    }
+
+    /**
+     * Ids of the user's expenses containing every token of the query, best match first.
+     * Description hits rank above notes hits. The first search of a user without an index
+     * starts building it in the background and is answered by scanning, most recent first.
+     */
+    public List<Long> search(User user, String query, int limit) {
+        Set<String> grams = SearchGrams.forTokens(query);
+        if (grams.isEmpty()) {
+            return List.of();
+        }
+        if (!searchIndexedUserRepository.existsById(user.getId())) {
+            reindexInBackground(user);
+            return scan(user, query, limit);
+        }
+        return searchGramRepository.findRankedExpenseIds(user.getId(), grams, grams.size(), Limit.of(limit));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onAdded(ExpenseValues expense) {
+        index(expense);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onRemoved(ExpenseValues expense) {
+        searchGramRepository.deleteByExpenseId(expense.id());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onChanged(ExpenseValues before, ExpenseValues after) {
+        if (Objects.equals(before.description(), after.description())
+                && Objects.equals(before.notes(), after.notes())) {
+            return;
+        }
+        searchGramRepository.deleteByExpenseId(after.id());
+        index(after);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onBulkChange(ExpenseBulkChange change) {
+        // Bulk updates only touch type and category, which are not indexed
+        change.added().forEach(this::index);
+        List<Long> ids = change.deletedIds();
+        for (int from = 0; from < ids.size(); from += DELETE_BATCH_SIZE) {
+            searchGramRepository.deleteByExpenseIds(change.user().getId(),
+                    ids.subList(from, Math.min(from + DELETE_BATCH_SIZE, ids.size())));
+        }
+    }
+
+    /**
+     * Searches fall back to scanning from now on; the index is rebuilt once the reset commits
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onLedgerReset(User user) {
+        searchIndexedUserRepository.deleteById(user.getId());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reindexInBackground(user);
+            }
+        });
+    }
+
+    /**
+     * Mark a user whose ledger is empty (a new account) as covered, so their searches and
+     * dashboard filters use the postings their writes maintain from the start
+     */
+    public void markIndexed(User user) {
+        searchIndexedUserRepository.save(new SearchIndexedUser(user.getId(), LocalDateTime.now()));
+    }
+
+    /**
+     * Rebuild a user's postings on the task executor. A request for a user whose rebuild is
+     * already running makes that rebuild run once more, so rows it may have missed are covered.
+     */
+    public void reindexInBackground(User user) {
+        if (claim(user)) {
+            taskExecutor.execute(() -> reindexClaimed(user));
+        }
+    }
+
+    /**
+     * Rebuild a user's postings on the calling thread, for backfills that pace themselves.
+     * If a rebuild for the user is already running it is made to run once more instead.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void reindexNow(User user) {
+        if (claim(user)) {
+            reindexClaimed(user);
+        }
+    }
+
+    /**
+     * Register a rebuild for the user; false if one is running, which will then run once more
+     */
+    private boolean claim(User user) {
+        synchronized (rebuilding) {
+            if (!rebuilding.add(user.getId())) {
+                rebuildAgain.add(user.getId());
+                return false;
+            }
+            return true;
+        }
+    }
+
+    private void reindexClaimed(User user) {
+        boolean again = true;
+        while (again) {
+            try {
+                reindex(user);
+            } catch (RuntimeException e) {
+                // The user stays unmarked, so searches keep scanning and the next search retries
+                log.warn("Rebuilding the search index of user {} failed", user.getId(), e);
+            }
+            synchronized (rebuilding) {
+                again = rebuildAgain.remove(user.getId());
+                if (!again) {
+                    rebuilding.remove(user.getId());
+                }
+            }
+        }
+    }
+
+    /**
+     * Replace a user's postings batch by batch, reading the ledger in keyset order, each batch
+     * in its own transaction so neither the persistence context nor the transaction grows with
+     * the ledger. The marker is set last, once every row is covered.
+     */
+    private void reindex(User user) {
+        transactionTemplate.executeWithoutResult(status -> searchIndexedUserRepository.deleteById(user.getId()));
+
+        ExpenseCursor after = null;
+        do {
+            ExpenseCursor from = after;
+            after = transactionTemplate.execute(status -> indexBatch(user, from));
+        } while (after != null);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // Postings of rows deleted behind ExpenseService's back
+            searchGramRepository.deleteOrphans(user.getId());
+            synchronized (rebuilding) {
+                if (rebuildAgain.contains(user.getId())) {
+                    return;
+                }
+            }
+            searchIndexedUserRepository.save(new SearchIndexedUser(user.getId(), LocalDateTime.now()));
+        });
+    }
+
+    /**
+     * Re-index the batch after the cursor; returns the cursor of its last row, or null at the end
+     */
+    private ExpenseCursor indexBatch(User user, ExpenseCursor after) {
+        List<Expense> batch = expenseRepository.findKeysetPage(Specification.where(ExpenseSpecifications.belongsTo(user)),
+                after != null ? after.date() : null,
+                after != null ? after.id() : null,
+                REINDEX_BATCH_SIZE);
+        if (batch.isEmpty()) {
+            return null;
+        }
+
+        searchGramRepository.deleteByExpenseIds(user.getId(), batch.stream().map(Expense::getId).toList());
+        for (Expense expense : batch) {
+            index(ExpenseValues.of(expense));
+        }
+        return ExpenseCursor.of(batch.get(batch.size() - 1));
+    }
+
+    /**
+     * Unindexed fallback: every token must occur in the description or the notes
+     */
+    private List<Long> scan(User user, String query, int limit) {
+        Specification<Expense> spec = Specification.where(ExpenseSpecifications.belongsTo(user));
+        for (String token : SearchGrams.tokens(query)) {
+            spec = spec.and(ExpenseSpecifications.textContains(token));
+        }
+        return expenseRepository.findKeysetPage(spec, null, null, limit).stream()
+                .map(Expense::getId)
+                .toList();
+    }
+
+    /**
+     * Insert the postings of one expense. The expense has none at this point, so they are
+     * persisted directly rather than merged, and go out in JDBC batches.
+     */
+    private void index(ExpenseValues expense) {
+        Map<String, Integer> weights = SearchGrams.forDocument(expense.description(), expense.notes());
+        weights.forEach((gram, weight) ->
+                entityManager.persist(new SearchGram(expense.id(), gram, expense.userId(), weight)));
+    }
+}
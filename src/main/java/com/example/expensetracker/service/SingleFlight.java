@@ -0,0 +1,175 @@
+package com.example.expensetracker.service;
+
+import com.example.expensetracker.model.ExpenseValues;
+import com.example.expensetracker.model.User;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical concurrent reads: while a computation for a (user, operation, arguments)
+ * key is in flight, further callers with the same key wait for its result instead of
+ * querying again. Nothing is cached once the computation finishes.
+ * execute runs the first caller's computation on that caller's own thread; submit runs it as
+ * a task on the bounded read pool. Either way no other caller can cancel it: each caller gets
+ * its own view of the result and stops waiting at its own deadline.
+ * A write to the user's expenses detaches the user's in-flight computations, so callers
+ * arriving after the write start a fresh one. Call this outside any transaction so waiting
+ * callers do not hold a connection.
+ */
+@Component
+public class SingleFlight implements ExpenseChangeListener {
+
+    private record Key(Long userId, String operation, List<Object> arguments) {
+    }
+
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Executor executor;
+    private final Duration maxWait;
+
+    public SingleFlight(@Qualifier("readTaskExecutor") Executor executor,
+                        @Value("${expensetracker.single-flight.max-wait:30s}") Duration maxWait) {
+        this.executor = executor;
+        this.maxWait = maxWait;
+    }
+
+    /**
+     * Result of the computation for the key. The first caller computes it on its own thread;
+     * callers arriving meanwhile wait for that result, and one that has waited max-wait
+     * computes on its own instead of failing.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Long userId, String operation, Supplier<T> loader, Object... arguments) {
+        Key key = new Key(userId, operation, Arrays.asList(arguments));
+        CompletableFuture<Object> created = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return (T) await(existing.copy(), loader);
+        }
+
+        try {
+            T result = loader.get();
+            created.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, created);
+        }
+    }
+
+    /**
+     * Start or join the computation for the key without waiting for it. A computation started
+     * here runs on the read pool; if the pool is full the returned future fails with a
+     * RejectedExecutionException. Cancelling or abandoning the returned future leaves the
+     * computation running for everyone else.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> submit(Long userId, String operation, Supplier<T> loader, Object... arguments) {
+        Key key = new Key(userId, operation, Arrays.asList(arguments));
+        CompletableFuture<Object> created = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return (CompletableFuture<T>) existing.copy();
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    created.complete(loader.get());
+                } catch (Throwable e) {
+                    created.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(key, created);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, created);
+            created.completeExceptionally(e);
+        }
+        return (CompletableFuture<T>) created.copy();
+    }
+
+    public void invalidate(Long userId) {
+        inFlight.keySet().removeIf(key -> key.userId().equals(userId));
+    }
+
+    @Override
+    public void onAdded(ExpenseValues expense) {
+        invalidateAfterCommit(expense.userId());
+    }
+
+    @Override
+    public void onRemoved(ExpenseValues expense) {
+        invalidateAfterCommit(expense.userId());
+    }
+
+    @Override
+    public void onChanged(ExpenseValues before, ExpenseValues after) {
+        invalidateAfterCommit(after.userId());
+    }
+
+    @Override
+    public void onBulkChange(ExpenseBulkChange change) {
+        invalidateAfterCommit(change.user().getId());
+    }
+
+    @Override
+    public void onLedgerReset(User user) {
+        invalidateAfterCommit(user.getId());
+    }
+
+    /**
+     * Invalidate now and again after commit, so a computation that started
+     * while the write was uncommitted is not shared with later callers
+     */
+    private void invalidateAfterCommit(Long userId) {
+        invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(userId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Wait up to max-wait for another caller's computation; past that, load independently
+     */
+    private Object await(CompletableFuture<Object> shared, Supplier<?> loader) {
+        try {
+            return shared.get(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new RuntimeException("Shared computation failed", e.getCause());
+        } catch (TimeoutException e) {
+            return loader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a shared computation", e);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.expensetracker.service;
+
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.ExpenseSummary;
+import com.example.expensetracker.model.ExpenseValues;
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.repository.ExpenseRepository;
+import com.example.expensetracker.repository.UserBalanceRepository;
+import com.example.expensetracker.repository.UserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Maintains the user_balances summary table.
+ * Change callbacks run inside the transaction of the expense write they describe,
+ * so the totals commit or roll back together with the expense row.
+ */
+@Service
+@Transactional
+public class UserBalanceService implements ExpenseChangeListener {
+
+    private final UserBalanceRepository userBalanceRepository;
+    private final ExpenseRepository expenseRepository;
+    private final UserRepository userRepository;
+
+    public UserBalanceService(UserBalanceRepository userBalanceRepository,
+                              ExpenseRepository expenseRepository,
+                              UserRepository userRepository) {
+        this.userBalanceRepository = userBalanceRepository;
+        this.expenseRepository = expenseRepository;
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Get the maintained totals for a user.
+     * Users without a row yet (created by their next write or the repair job)
+     * are summarized from the expenses table, so reads never write.
+     */
+    @Transactional(readOnly = true)
+    public ExpenseSummary getSummary(User user) {
+        return userBalanceRepository.findSummaryByUserId(user.getId())
+                .orElseGet(() -> summarize(user));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onAdded(ExpenseValues expense) {
+        if (adjust(expense.userId(), expense.amountFor(Expense.TransactionType.INCOME),
+                expense.amountFor(Expense.TransactionType.EXPENSE), 1)) {
+            userBalanceRepository.extendDateRange(expense.userId(), expense.date());
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onRemoved(ExpenseValues expense) {
+        if (adjust(expense.userId(), expense.amountFor(Expense.TransactionType.INCOME).negate(),
+                expense.amountFor(Expense.TransactionType.EXPENSE).negate(), -1)) {
+            userBalanceRepository.refreshDateRange(expense.userId());
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onChanged(ExpenseValues before, ExpenseValues after) {
+        BigDecimal income = after.amountFor(Expense.TransactionType.INCOME)
+                .subtract(before.amountFor(Expense.TransactionType.INCOME));
+        BigDecimal expenses = after.amountFor(Expense.TransactionType.EXPENSE)
+                .subtract(before.amountFor(Expense.TransactionType.EXPENSE));
+
+        if (adjust(after.userId(), income, expenses, 0) && !after.date().equals(before.date())) {
+            userBalanceRepository.refreshDateRange(after.userId());
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onBulkChange(ExpenseBulkChange change) {
+        Long userId = change.user().getId();
+        if (!adjust(userId, change.amountFor(Expense.TransactionType.INCOME),
+                change.amountFor(Expense.TransactionType.EXPENSE), change.countDelta())) {
+            return;
+        }
+        if (!change.deletedIds().isEmpty()) {
+            userBalanceRepository.refreshDateRange(userId);
+        }
+        if (!change.added().isEmpty()) {
+            LocalDate first = change.added().get(0).date();
+            LocalDate last = first;
+            for (ExpenseValues expense : change.added()) {
+                first = expense.date().isBefore(first) ? expense.date() : first;
+                last = expense.date().isAfter(last) ? expense.date() : last;
+            }
+            userBalanceRepository.extendDateRange(userId, first);
+            userBalanceRepository.extendDateRange(userId, last);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onLedgerReset(User user) {
+        rebuild(user);
+    }
+
+    /**
+     * Lock the user's balance row until the transaction ends, creating it if missing.
+     * Every write that adds or removes expenses updates this row before it commits, so while
+     * the lock is held no other transaction can add rows to or remove rows from the ledger.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lockBalance(User user) {
+        Long userId = user.getId();
+        if (userBalanceRepository.lockByUserId(userId).isPresent()) {
+            return;
+        }
+        if (userBalanceRepository.insertIfAbsent(userId) > 0) {
+            replaceTotals(userId, summarize(user));
+        } else {
+            userBalanceRepository.lockByUserId(userId);
+        }
+    }
+
+    /**
+     * Recompute a user's totals from the expenses table, replacing whatever is stored
+     */
+    public ExpenseSummary rebuild(User user) {
+        ExpenseSummary summary = summarize(user);
+        userBalanceRepository.insertIfAbsent(user.getId());
+        replaceTotals(user.getId(), summary);
+        return summary;
+    }
+
+    private void replaceTotals(Long userId, ExpenseSummary summary) {
+        userBalanceRepository.replaceTotals(userId, summary.totalIncome(), summary.totalExpenses(),
+                summary.transactionCount(), summary.firstDate(), summary.lastDate());
+    }
+
+    private ExpenseSummary summarize(User user) {
+        ExpenseSummary summary = expenseRepository.summarize(user);
+        return summary != null ? summary : ExpenseSummary.empty();
+    }
+
+    /**
+     * Apply signed deltas; the first write for a user without a row fills it from scratch.
+     * Returns true when the deltas were applied incrementally.
+     */
+    private boolean adjust(Long userId, BigDecimal income, BigDecimal expenses, long count) {
+        if (userBalanceRepository.addToTotals(userId, income, expenses, count) > 0) {
+            return true;
+        }
+        // Concurrent first writers are serialized on the new row: the one that creates it
+        // computes the totals (its own write included) while the others wait for that commit,
+        // then add their deltas on top
+        if (userBalanceRepository.insertIfAbsent(userId) > 0) {
+            replaceTotals(userId, summarize(userRepository.getReferenceById(userId)));
+            return false;
+        }
+        userBalanceRepository.addToTotals(userId, income, expenses, count);
+        return true;
+    }
+}
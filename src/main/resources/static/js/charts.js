@@ -3,43 +3,42 @@
 let categoryChart, incomeExpenseChart, monthlyTrendChart, dailyChart;
 
 /**
- * Initialize all charts with expense data
+ * Initialize all charts with the pre-bucketed series from /api/charts
  */
-function initializeCharts(expensesData) {
-    if (!expensesData || expensesData.length === 0) {
+function initializeCharts(chartData) {
+    if (!chartData || (Number(chartData.totalIncome) === 0
+            && Number(chartData.totalExpenses) === 0
+            && chartData.expensesByCategory.length === 0)) {
         showEmptyChartMessages();
         return;
     }
 
     // Initialize each chart
-    initCategoryChart(expensesData);
-    initIncomeExpenseChart(expensesData);
-    initMonthlyTrendChart(expensesData);
-    initDailyChart(expensesData);
+    initCategoryChart(chartData.expensesByCategory);
+    initIncomeExpenseChart(Number(chartData.totalIncome), Number(chartData.totalExpenses));
+    initMonthlyTrendChart(chartData.monthly);
+    initDailyChart(chartData.daily);
+}
+
+/**
+ * Load chart data for the current dashboard filters
+ */
+function loadCharts(queryString) {
+    fetch('/api/charts' + (queryString || ''))
+        .then(response => response.json())
+        .then(initializeCharts)
+        .catch(() => showEmptyChartMessages());
 }
 
 /**
  * Category Breakdown Pie Chart
  */
-function initCategoryChart(expensesData) {
+function initCategoryChart(categoryAmounts) {
     const ctx = document.getElementById('categoryChart');
     if (!ctx) return;
 
-    // Filter only expenses (not income)
-    const expenses = expensesData.filter(exp => exp.type === 'EXPENSE');
-    
-    // Group by category
-    const categoryData = {};
-    expenses.forEach(exp => {
-        const category = exp.category;
-        if (!categoryData[category]) {
-            categoryData[category] = 0;
-        }
-        categoryData[category] += parseFloat(exp.amount);
-    });
-
-    const labels = Object.keys(categoryData);
-    const data = Object.values(categoryData);
+    const labels = categoryAmounts.map(item => item.label);
+    const data = categoryAmounts.map(item => Number(item.amount));
     const colors = generateColors(labels.length);
 
     if (categoryChart) categoryChart.destroy();
@@ -81,19 +80,10 @@ function initCategoryChart(expensesData) {
 /**
  * Income vs Expense Bar Chart
  */
-function initIncomeExpenseChart(expensesData) {
+function initIncomeExpenseChart(totalIncome, totalExpense) {
     const ctx = document.getElementById('incomeExpenseChart');
     if (!ctx) return;
 
-    // Calculate totals
-    const totalIncome = expensesData
-        .filter(exp => exp.type === 'INCOME')
-        .reduce((sum, exp) => sum + parseFloat(exp.amount), 0);
-    
-    const totalExpense = expensesData
-        .filter(exp => exp.type === 'EXPENSE')
-        .reduce((sum, exp) => sum + parseFloat(exp.amount), 0);
-
     if (incomeExpenseChart) incomeExpenseChart.destroy();
 
     incomeExpenseChart = new Chart(ctx, {
@@ -151,45 +141,19 @@ function initIncomeExpenseChart(expensesData) {
 /**
  * Monthly Income vs Expense BAR Chart
  */
-function initMonthlyTrendChart(expensesData) {
+function initMonthlyTrendChart(monthly) {
     const ctx = document.getElementById('monthlyTrendChart');
     if (!ctx) return;
 
-    // Group by month
-    const monthlyData = {};
-
-	expensesData.forEach(exp => {
-	    const date = new Date(
-	        exp.date.year,
-	        exp.date.monthValue - 1,
-	        exp.date.dayOfMonth
-	    );
-
-	    const monthKey = `${date.getFullYear()}-${String(date.getMonth() + 1).padStart(2, '0')}`;
-
-	    if (!monthlyData[monthKey]) {
-	        monthlyData[monthKey] = { income: 0, expense: 0 };
-	    }
-
-	    if (exp.type === 'INCOME') {
-	        monthlyData[monthKey].income += parseFloat(exp.amount);
-	    } else {
-	        monthlyData[monthKey].expense += parseFloat(exp.amount);
-	    }
-	});
-
-
-    // Sort months chronologically
-    const sortedMonths = Object.keys(monthlyData).sort();
-
-    const labels = sortedMonths.map(month => {
-        const [year, monthNum] = month.split('-');
+    // Months arrive sorted as "yyyy-MM"
+    const labels = monthly.map(point => {
+        const [year, monthNum] = point.period.split('-');
         const date = new Date(year, monthNum - 1);
         return date.toLocaleDateString('en-US', { month: 'short', year: 'numeric' });
     });
 
-    const incomeData = sortedMonths.map(month => monthlyData[month].income);
-    const expenseData = sortedMonths.map(month => monthlyData[month].expense);
+    const incomeData = monthly.map(point => Number(point.income));
+    const expenseData = monthly.map(point => Number(point.expense));
 
     if (monthlyTrendChart) monthlyTrendChart.destroy();
 
@@ -250,59 +214,18 @@ function initMonthlyTrendChart(expensesData) {
 /**
  * Daily Activity Chart (Last 30 Days)
  */
-function initDailyChart(expensesData) {
+function initDailyChart(daily) {
     const ctx = document.getElementById('dailyChart');
     if (!ctx) return;
 
-    // Today at midnight (avoid time drift)
-    const today = new Date();
-    today.setHours(0, 0, 0, 0);
-
-    const thirtyDaysAgo = new Date(today);
-    thirtyDaysAgo.setDate(today.getDate() - 30);
-
-    // Group by day
-    const dailyData = {};
-
-    // Initialize last 30 days with 0
-    for (let d = new Date(thirtyDaysAgo); d <= today; d.setDate(d.getDate() + 1)) {
-        const dayKey = d.toISOString().split('T')[0];
-        dailyData[dayKey] = { income: 0, expense: 0 };
-    }
-
-    // Fill with actual data
-    expensesData.forEach(exp => {
-
-        const date = new Date(
-            exp.date.year,
-            exp.date.monthValue - 1,
-            exp.date.dayOfMonth
-        );
-
-        // Normalize time
-        date.setHours(0, 0, 0, 0);
-
-        if (date >= thirtyDaysAgo && date <= today) {
-            const dayKey = date.toISOString().split('T')[0];
-
-            if (exp.type === 'INCOME') {
-                dailyData[dayKey].income += parseFloat(exp.amount);
-            } else {
-                dailyData[dayKey].expense += parseFloat(exp.amount);
-            }
-        }
-    });
-
-    // Sort by date
-    const sortedDays = Object.keys(dailyData).sort();
-
-    const labels = sortedDays.map(day => {
-        const date = new Date(day + 'T00:00:00');
+    // Days arrive sorted and zero-filled as "yyyy-MM-dd"
+    const labels = daily.map(point => {
+        const date = new Date(point.period + 'T00:00:00');
         return date.toLocaleDateString('en-US', { month: 'short', day: 'numeric' });
     });
 
-    const incomeData = sortedDays.map(day => dailyData[day].income);
-    const expenseData = sortedDays.map(day => dailyData[day].expense);
+    const incomeData = daily.map(point => Number(point.income));
+    const expenseData = daily.map(point => Number(point.expense));
 
     if (dailyChart) dailyChart.destroy();
 
@@ -394,10 +317,6 @@ function showEmptyChartMessages() {
 /**
  * Update charts when filters change
  */
-function updateChartsWithFilteredData(filteredData) {
-    if (filteredData && filteredData.length > 0) {
-        initializeCharts(filteredData);
-    } else {
-        showEmptyChartMessages();
-    }
-}
\ No newline at end of file
+function updateChartsWithFilteredData(queryString) {
+    loadCharts(queryString);
+}
@@ -1,9 +1,9 @@
 package com.example.expensetracker;
 
+import com.example.expensetracker.support.H2IntegrationTest;
 import org.junit.jupiter.api.Test;
-import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@H2IntegrationTest
 class ExpensetrackerApplicationTests {
 
 	@Test
@@ -0,0 +1,28 @@
+package com.example.expensetracker.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JMH benchmarks in this package and writes the results as JSON.
+ * Usage: mvn -Pbenchmark verify [-Djmh.include=Filter] [-Djmh.result=target/jmh-result.json]
+ * The first argument, if present, overrides the include pattern.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : System.getProperty("jmh.include", ".*Benchmark");
+        String result = System.getProperty("jmh.result", "target/jmh-result.json");
+
+        new Runner(new OptionsBuilder()
+                .include(BenchmarkRunner.class.getPackageName() + "\\..*" + include + ".*")
+                .resultFormat(ResultFormatType.JSON)
+                .result(result)
+                .build()).run();
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.expensetracker.benchmark;
+
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.security.AppUserPrincipal;
+import com.example.expensetracker.service.ExpenseFilter;
+import com.example.expensetracker.service.ExpensePage;
+import com.example.expensetracker.service.ExpenseService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.csrf.DefaultCsrfToken;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thymeleaf rendering of dashboard.html with one full page of transactions,
+ * using the application's configured template engine and dialects.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DashboardRenderBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    private ConfigurableApplicationContext context;
+    private ITemplateEngine templateEngine;
+    private WebContext webContext;
+
+    @Setup
+    public void setUp() {
+        context = LedgerFixture.startApplication("render");
+        User user = LedgerFixture.seedUser(context, "bench", 1000);
+        ExpenseService expenseService = context.getBean(ExpenseService.class);
+        templateEngine = context.getBean(ITemplateEngine.class);
+
+        ExpensePage page = expenseService.getExpensePage(user, ExpenseFilter.none(), null, PAGE_SIZE);
+
+        // The template reads the principal through #authentication; JMH may render on another thread
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        AppUserPrincipal principal = AppUserPrincipal.of(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("expenses", page.expenses());
+        variables.put("nextCursor", page.hasNext() ? page.nextCursor().encode() : null);
+        variables.put("summary", expenseService.getSummary(user));
+        variables.put("expense", new Expense());
+        variables.put("categories", Expense.Category.values());
+        variables.put("_csrf", new DefaultCsrfToken("X-CSRF-TOKEN", "_csrf", "benchmark-token"));
+
+        MockServletContext servletContext = new MockServletContext();
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext, "GET", "/dashboard");
+        JakartaServletWebApplication application = JakartaServletWebApplication.buildApplication(servletContext);
+        webContext = new WebContext(application.buildExchange(request, new MockHttpServletResponse()),
+                Locale.US, variables);
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        context.close();
+    }
+
+    @Benchmark
+    public String renderDashboard() {
+        return templateEngine.process("dashboard", webContext);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.expensetracker.benchmark;
+
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.service.ExpenseFilter;
+import com.example.expensetracker.service.LedgerSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Dashboard filtering in memory: the old applyFilters approach (stream passes over
+ * entities) versus the columnar LedgerSnapshot, for each filter combination.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"1000", "10000", "100000"})
+    private int rows;
+
+    @Param({"none", "search", "type", "category", "period", "custom", "combined"})
+    private String filterCombination;
+
+    private ExpenseFilter filter;
+    private List<Expense> entities;
+    private LedgerSnapshot snapshot;
+
+    @Setup
+    public void setUp() {
+        List<Object[]> ledger = LedgerFixture.ledgerColumns(rows);
+        filter = LedgerFixture.filter(filterCombination);
+        entities = LedgerFixture.entities(ledger);
+        snapshot = LedgerSnapshot.of(ledger);
+    }
+
+    /**
+     * Baseline: one stream pass per active criterion, as ExpenseController.applyFilters did
+     */
+    @Benchmark
+    public List<Expense> entityStreams() {
+        List<Expense> expenses = entities;
+        if (filter.search() != null) {
+            String search = filter.search().toLowerCase();
+            expenses = expenses.stream()
+                    .filter(e -> e.getDescription().toLowerCase().contains(search))
+                    .collect(Collectors.toList());
+        }
+        if (filter.type() != null) {
+            expenses = expenses.stream()
+                    .filter(e -> e.getType() == filter.type())
+                    .collect(Collectors.toList());
+        }
+        if (filter.category() != null) {
+            expenses = expenses.stream()
+                    .filter(e -> e.getCategory() == filter.category())
+                    .collect(Collectors.toList());
+        }
+        if (filter.hasDateRange()) {
+            LocalDate start = filter.startDate();
+            LocalDate end = filter.endDate();
+            expenses = expenses.stream()
+                    .filter(e -> !e.getDate().isBefore(start) && !e.getDate().isAfter(end))
+                    .collect(Collectors.toList());
+        }
+        return expenses;
+    }
+
+    @Benchmark
+    public long[] snapshotFirstPage() {
+        return snapshot.page(filter, null, PAGE_SIZE + 1);
+    }
+
+    @Benchmark
+    public long snapshotCount() {
+        return snapshot.count(filter);
+    }
+}
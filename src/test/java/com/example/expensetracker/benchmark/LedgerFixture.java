@@ -0,0 +1,192 @@
+package com.example.expensetracker.benchmark;
+
+import com.example.expensetracker.ExpensetrackerApplication;
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.repository.UserRepository;
+import com.example.expensetracker.service.ExpenseFilter;
+import com.example.expensetracker.service.MonthlyRollupService;
+import com.example.expensetracker.service.UserBalanceService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic ledgers for the benchmarks, either in memory or seeded into an embedded H2 database.
+ * Data is generated from a fixed seed so runs are comparable.
+ */
+final class LedgerFixture {
+
+    private static final String[] MERCHANTS = {
+            "Blue Bottle Coffee", "Whole Foods", "Shell", "Uber", "Netflix", "Amazon", "Target",
+            "City Power", "Water Utility", "Cinema City", "Pizza Hut", "Starbucks", "Metro Card",
+            "Apple Store", "Spotify", "Gym Membership", "Client Invoice", "Monthly Salary"
+    };
+
+    private static final String[] SUFFIXES = {"", " order", " refill", " subscription", " weekend", " downtown"};
+
+    private static final int INSERT_BATCH_SIZE = 1000;
+
+    private LedgerFixture() {
+    }
+
+    /**
+     * Start the application against a private in-memory H2 database.
+     * Extra "key=value" properties override the defaults.
+     */
+    static ConfigurableApplicationContext startApplication(String databaseName, String... extraProperties) {
+        return new SpringApplicationBuilder(ExpensetrackerApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:" + databaseName
+                                + ";DB_CLOSE_DELAY=-1;NON_KEYWORDS=DATE,TYPE,VALUE,YEAR,MONTH",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "spring.thymeleaf.cache=true",
+                        "logging.level.root=WARN")
+                .properties(extraProperties)
+                .run();
+    }
+
+    /**
+     * Create a user with the given number of transactions, then build the maintained aggregates
+     */
+    static User seedUser(ConfigurableApplicationContext context, String username, int rows) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("{noop}password");
+        user = userRepository.save(user);
+
+        Random random = new Random(42);
+        LocalDate today = LocalDate.now();
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int i = 0; i < rows; i++) {
+            Expense.TransactionType type = random.nextInt(10) < 8
+                    ? Expense.TransactionType.EXPENSE
+                    : Expense.TransactionType.INCOME;
+            batch.add(new Object[] {
+                    description(random),
+                    amount(random),
+                    type.name(),
+                    category(random, type).name(),
+                    Date.valueOf(today.minusDays(random.nextInt(3 * 365))),
+                    random.nextInt(5) == 0 ? "note " + i : null,
+                    user.getId()
+            });
+            if (batch.size() == INSERT_BATCH_SIZE) {
+                insert(jdbcTemplate, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            insert(jdbcTemplate, batch);
+        }
+
+        context.getBean(UserBalanceService.class).rebuild(user);
+        context.getBean(MonthlyRollupService.class).rebuild(user);
+        return user;
+    }
+
+    /**
+     * In-memory ledger as [id, date, amount, type, category, description] rows in keyset order,
+     * the same shape ExpenseRepository.findLedgerColumns returns
+     */
+    static List<Object[]> ledgerColumns(int rows) {
+        Random random = new Random(42);
+        LocalDate today = LocalDate.now();
+        List<Object[]> ledger = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Expense.TransactionType type = random.nextInt(10) < 8
+                    ? Expense.TransactionType.EXPENSE
+                    : Expense.TransactionType.INCOME;
+            ledger.add(new Object[] {
+                    (long) i + 1,
+                    today.minusDays(random.nextInt(3 * 365)),
+                    amount(random),
+                    type,
+                    category(random, type),
+                    description(random)
+            });
+        }
+        ledger.sort(Comparator.<Object[], LocalDate>comparing(row -> (LocalDate) row[1])
+                .thenComparing(row -> (Long) row[0])
+                .reversed());
+        return ledger;
+    }
+
+    /**
+     * Detached entities built from ledgerColumns, for the legacy in-memory filter baseline
+     */
+    static List<Expense> entities(List<Object[]> ledger) {
+        List<Expense> expenses = new ArrayList<>(ledger.size());
+        for (Object[] row : ledger) {
+            Expense expense = new Expense();
+            expense.setId((Long) row[0]);
+            expense.setDate((LocalDate) row[1]);
+            expense.setAmount((BigDecimal) row[2]);
+            expense.setType((Expense.TransactionType) row[3]);
+            expense.setCategory((Expense.Category) row[4]);
+            expense.setDescription((String) row[5]);
+            expenses.add(expense);
+        }
+        return expenses;
+    }
+
+    /**
+     * Dashboard filter combinations exercised by the benchmarks, by name
+     */
+    static ExpenseFilter filter(String combination) {
+        return switch (combination) {
+            case "none" -> ExpenseFilter.none();
+            case "search" -> ExpenseFilter.fromRequest("coffee", null, null, null, null, null);
+            case "type" -> ExpenseFilter.fromRequest(null, "INCOME", null, null, null, null);
+            case "category" -> ExpenseFilter.fromRequest(null, null, "FOOD", null, null, null);
+            case "period" -> ExpenseFilter.fromRequest(null, null, null, "this_month", null, null);
+            case "custom" -> ExpenseFilter.fromRequest(null, null, null, "custom",
+                    LocalDate.now().minusMonths(6).toString(), LocalDate.now().toString());
+            case "combined" -> ExpenseFilter.fromRequest("coffee", "EXPENSE", "FOOD", "custom",
+                    LocalDate.now().minusYears(1).toString(), LocalDate.now().toString());
+            default -> throw new IllegalArgumentException("Unknown filter combination: " + combination);
+        };
+    }
+
+    private static void insert(JdbcTemplate jdbcTemplate, List<Object[]> batch) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO expenses (id, description, amount, type, category, date, notes, user_id) "
+                        + "VALUES (NEXT VALUE FOR expenses_seq, ?, ?, ?, ?, ?, ?, ?)",
+                batch);
+    }
+
+    private static String description(Random random) {
+        return MERCHANTS[random.nextInt(MERCHANTS.length)] + SUFFIXES[random.nextInt(SUFFIXES.length)];
+    }
+
+    private static BigDecimal amount(Random random) {
+        return BigDecimal.valueOf(100 + random.nextInt(50_000), 2);
+    }
+
+    private static Expense.Category category(Random random, Expense.TransactionType type) {
+        if (type == Expense.TransactionType.INCOME) {
+            return random.nextBoolean() ? Expense.Category.SALARY : Expense.Category.BUSINESS;
+        }
+        Expense.Category[] spending = {
+                Expense.Category.FOOD, Expense.Category.TRANSPORT, Expense.Category.SHOPPING,
+                Expense.Category.ENTERTAINMENT, Expense.Category.BILLS, Expense.Category.OTHER
+        };
+        return spending[random.nextInt(spending.length)];
+    }
+}
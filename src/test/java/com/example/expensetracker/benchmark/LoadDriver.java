@@ -0,0 +1,259 @@
+package com.example.expensetracker.benchmark;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-JVM HTTP load test. Boots the application on embedded H2 with the "seed" profile,
+ * then each client logs in as one seeded user and loops over random dashboard filters
+ * and /expense/add posts until the duration elapses. Prints p50/p99 latency and
+ * throughput per operation. Traffic stays on the loopback interface.
+ *
+ * Run with: mvn -Pload-test verify [-Dload.clients=16] [-Dload.duration=60]
+ * System properties prefixed with "load.app." are passed to the application,
+ * e.g. -Dload.app.expensetracker.ledger-snapshot.enabled=true.
+ */
+public final class LoadDriver {
+
+    private static final Pattern CSRF_TOKEN = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+
+    private static final String[] SEARCH_TERMS = {"coffee", "uber", "amazon", "netflix", "salary", "rent"};
+    private static final String[] TYPES = {"INCOME", "EXPENSE"};
+    private static final String[] CATEGORIES = {"FOOD", "TRANSPORT", "SHOPPING", "ENTERTAINMENT", "BILLS", "OTHER"};
+    private static final String[] PERIODS = {"today", "this_week", "this_month", "last_month", "custom"};
+
+    private LoadDriver() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clients = Integer.getInteger("load.clients", 8);
+        int users = Integer.getInteger("load.users", clients);
+        int transactionsPerUser = Integer.getInteger("load.transactions-per-user", 2000);
+        int warmupSeconds = Integer.getInteger("load.warmup", 10);
+        int durationSeconds = Integer.getInteger("load.duration", 30);
+        int writePercent = Integer.getInteger("load.write-percent", 10);
+
+        List<String> properties = new ArrayList<>(List.of(
+                "spring.profiles.active=seed",
+                "expensetracker.seed.users=" + users,
+                "expensetracker.seed.transactions-per-user=" + transactionsPerUser));
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("load.app."))
+                .forEach(name -> properties.add(name.substring("load.app.".length()) + "=" + System.getProperty(name)));
+
+        try (ConfigurableApplicationContext context =
+                     LedgerFixture.startApplication("load", properties.toArray(String[]::new))) {
+            String port = context.getEnvironment().getProperty("local.server.port");
+            String baseUrl = "http://localhost:" + port;
+            System.out.printf("Seeded %d users x %d transactions; %d clients, %d%% writes%n",
+                    users, transactionsPerUser, clients, writePercent);
+
+            run(baseUrl, clients, users, writePercent, Duration.ofSeconds(warmupSeconds));
+            Map<String, long[]> latencies = run(baseUrl, clients, users, writePercent, Duration.ofSeconds(durationSeconds));
+            report(latencies, durationSeconds);
+        }
+    }
+
+    private static Map<String, long[]> run(String baseUrl, int clients, int users, int writePercent,
+                                           Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        try {
+            List<Future<Client>> futures = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                String username = "loaduser" + (i % users + 1);
+                futures.add(executor.submit(() -> {
+                    Client client = new Client(baseUrl);
+                    client.login(username, "password");
+                    while (System.nanoTime() < deadline) {
+                        if (ThreadLocalRandom.current().nextInt(100) < writePercent) {
+                            client.addExpense();
+                        } else {
+                            client.dashboard();
+                        }
+                    }
+                    return client;
+                }));
+            }
+
+            Map<String, List<Long>> merged = new LinkedHashMap<>();
+            for (Future<Client> future : futures) {
+                future.get().samples.forEach((operation, samples) ->
+                        merged.computeIfAbsent(operation, key -> new ArrayList<>()).addAll(samples));
+            }
+            Map<String, long[]> sorted = new LinkedHashMap<>();
+            merged.forEach((operation, samples) -> {
+                long[] values = samples.stream().mapToLong(Long::longValue).toArray();
+                Arrays.sort(values);
+                sorted.put(operation, values);
+            });
+            return sorted;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void report(Map<String, long[]> latencies, int durationSeconds) {
+        System.out.printf("%-12s %10s %10s %10s %10s %10s%n", "operation", "requests", "req/s", "p50 ms", "p99 ms", "max ms");
+        long total = 0;
+        for (Map.Entry<String, long[]> entry : latencies.entrySet()) {
+            long[] values = entry.getValue();
+            total += values.length;
+            System.out.printf("%-12s %10d %10.1f %10.2f %10.2f %10.2f%n",
+                    entry.getKey(), values.length, (double) values.length / durationSeconds,
+                    millis(percentile(values, 0.50)), millis(percentile(values, 0.99)),
+                    millis(values.length == 0 ? 0 : values[values.length - 1]));
+        }
+        System.out.printf("%-12s %10d %10.1f%n", "total", total, (double) total / durationSeconds);
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * One logged-in browser session. Not thread safe; each client runs on its own thread.
+     */
+    private static final class Client {
+
+        private final String baseUrl;
+        private final HttpClient http;
+        private final Map<String, List<Long>> samples = new LinkedHashMap<>();
+        private String csrfToken;
+
+        Client(String baseUrl) {
+            this.baseUrl = baseUrl;
+            this.http = HttpClient.newBuilder()
+                    .cookieHandler(new CookieManager())
+                    .followRedirects(HttpClient.Redirect.NEVER)
+                    .build();
+        }
+
+        void login(String username, String password) throws IOException, InterruptedException {
+            csrfToken = csrfToken(send(get("/login")).body());
+            HttpResponse<String> response = send(post("/login",
+                    form("username", username, "password", password, "_csrf", csrfToken)));
+            String location = response.headers().firstValue("Location").orElse("");
+            if (response.statusCode() != 302 || location.contains("error")) {
+                throw new IllegalStateException("Login failed for " + username + ": " + response.statusCode() + " " + location);
+            }
+            // The token is rotated on login
+            csrfToken = csrfToken(send(get("/dashboard")).body());
+        }
+
+        void dashboard() throws IOException, InterruptedException {
+            timed("dashboard", get("/dashboard?" + randomFilter()), 200);
+        }
+
+        void addExpense() throws IOException, InterruptedException {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            String type = random.nextInt(10) == 0 ? "INCOME" : "EXPENSE";
+            String category = "INCOME".equals(type) ? "SALARY" : CATEGORIES[random.nextInt(CATEGORIES.length)];
+            timed("add", post("/expense/add", form(
+                    "description", "Load test " + SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)],
+                    "amount", String.valueOf(1 + random.nextInt(20_000) / 100.0),
+                    "type", type,
+                    "category", category,
+                    "date", LocalDate.now().minusDays(random.nextInt(365)).toString(),
+                    "_csrf", csrfToken)), 302);
+        }
+
+        private void timed(String operation, HttpRequest request, int expectedStatus)
+                throws IOException, InterruptedException {
+            long started = System.nanoTime();
+            HttpResponse<String> response = send(request);
+            long elapsed = System.nanoTime() - started;
+            String key = response.statusCode() == expectedStatus ? operation : operation + "-" + response.statusCode();
+            samples.computeIfAbsent(key, name -> new ArrayList<>()).add(elapsed);
+        }
+
+        private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+            return http.send(request, HttpResponse.BodyHandlers.ofString());
+        }
+
+        private HttpRequest get(String path) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+        }
+
+        private HttpRequest post(String path, String form) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(form))
+                    .build();
+        }
+
+        private static String csrfToken(String html) {
+            Matcher matcher = CSRF_TOKEN.matcher(html);
+            if (!matcher.find()) {
+                throw new IllegalStateException("No CSRF token in page");
+            }
+            return matcher.group(1);
+        }
+
+        /**
+         * Each filter is present with some probability, so requests mix unfiltered and combined filters
+         */
+        private static String randomFilter() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            List<String> pairs = new ArrayList<>();
+            if (random.nextInt(4) == 0) {
+                pairs.addAll(List.of("search", SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)]));
+            }
+            if (random.nextInt(4) == 0) {
+                pairs.addAll(List.of("type", TYPES[random.nextInt(TYPES.length)]));
+            }
+            if (random.nextInt(4) == 0) {
+                pairs.addAll(List.of("category", CATEGORIES[random.nextInt(CATEGORIES.length)]));
+            }
+            if (random.nextInt(3) == 0) {
+                String period = PERIODS[random.nextInt(PERIODS.length)];
+                pairs.addAll(List.of("period", period));
+                if ("custom".equals(period)) {
+                    LocalDate end = LocalDate.now().minusDays(random.nextInt(365));
+                    pairs.addAll(List.of("startDate", end.minusDays(30 + random.nextInt(180)).toString(),
+                            "endDate", end.toString()));
+                }
+            }
+            return form(pairs.toArray(String[]::new));
+        }
+
+        private static String form(String... keyValues) {
+            StringJoiner joiner = new StringJoiner("&");
+            for (int i = 0; i < keyValues.length; i += 2) {
+                joiner.add(URLEncoder.encode(keyValues[i], StandardCharsets.UTF_8) + "="
+                        + URLEncoder.encode(keyValues[i + 1], StandardCharsets.UTF_8));
+            }
+            return joiner.toString();
+        }
+    }
+}
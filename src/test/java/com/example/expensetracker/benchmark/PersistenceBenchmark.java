@@ -0,0 +1,101 @@
+package com.example.expensetracker.benchmark;
+
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.ExpenseSummary;
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.repository.ExpenseRepository;
+import com.example.expensetracker.service.ExpenseFilter;
+import com.example.expensetracker.service.ExpensePage;
+import com.example.expensetracker.service.ExpenseService;
+import com.example.expensetracker.service.UserBalanceService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Database-backed hot paths against an embedded H2 database seeded with 1k/10k/100k rows:
+ * full-ledger entity hydration, summary aggregation and the filtered dashboard page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersistenceBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"1000", "10000", "100000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private ExpenseRepository expenseRepository;
+    private ExpenseService expenseService;
+    private UserBalanceService userBalanceService;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        context = LedgerFixture.startApplication("persistence" + rows);
+        user = LedgerFixture.seedUser(context, "bench", rows);
+        expenseRepository = context.getBean(ExpenseRepository.class);
+        expenseService = context.getBean(ExpenseService.class);
+        userBalanceService = context.getBean(UserBalanceService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Expense> hydrateFullLedger() {
+        return expenseRepository.findByUserOrderByDateDesc(user);
+    }
+
+    @Benchmark
+    public ExpenseSummary summaryAggregateQuery() {
+        return expenseRepository.summarize(user);
+    }
+
+    @Benchmark
+    public ExpenseSummary summaryMaintainedRow() {
+        return userBalanceService.getSummary(user);
+    }
+
+    @Benchmark
+    public ExpensePage filteredFirstPage(FilterState state) {
+        return expenseService.getExpensePage(user, state.filter, null, PAGE_SIZE);
+    }
+
+    /**
+     * Kept separate so only the filtered benchmark is multiplied by the filter combinations
+     */
+    @State(Scope.Benchmark)
+    public static class FilterState {
+
+        @Param({"none", "search", "type", "category", "period", "custom", "combined"})
+        private String filterCombination;
+
+        private ExpenseFilter filter;
+
+        @Setup
+        public void setUp() {
+            filter = LedgerFixture.filter(filterCombination);
+        }
+    }
+}
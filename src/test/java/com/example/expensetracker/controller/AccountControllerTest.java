@@ -0,0 +1,102 @@
+package com.example.expensetracker.controller;
+
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.repository.ExpenseRepository;
+import com.example.expensetracker.repository.MonthlyRollupRepository;
+import com.example.expensetracker.repository.UserBalanceRepository;
+import com.example.expensetracker.repository.UserRepository;
+import com.example.expensetracker.security.AppUserPrincipal;
+import com.example.expensetracker.service.AccountDeletionService;
+import com.example.expensetracker.service.AccountDeletionStatus;
+import com.example.expensetracker.service.ExpenseService;
+import com.example.expensetracker.support.H2IntegrationTest;
+import com.example.expensetracker.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.core.session.SessionRegistry;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@H2IntegrationTest
+@AutoConfigureMockMvc
+class AccountControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private UserBalanceRepository userBalanceRepository;
+
+    @Autowired
+    private MonthlyRollupRepository monthlyRollupRepository;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private AccountDeletionService accountDeletionService;
+
+    @Autowired
+    private SessionRegistry sessionRegistry;
+
+    @Test
+    void deletingTheAccountExpiresItsSessionsAndRemovesItsData() throws Exception {
+        User owner = TestData.newUser(userRepository);
+        User bystander = TestData.newUser(userRepository);
+        expenseService.saveExpense(TestData.expense(owner, "Salary", "1000.00",
+                Expense.TransactionType.INCOME, Expense.Category.SALARY, LocalDate.of(2024, 1, 31)));
+        expenseService.saveExpense(TestData.expense(owner, "Coffee", "3.50",
+                Expense.TransactionType.EXPENSE, Expense.Category.FOOD, LocalDate.of(2024, 2, 1)));
+        expenseService.saveExpense(TestData.expense(bystander, "Lunch", "20.00",
+                Expense.TransactionType.EXPENSE, Expense.Category.FOOD, LocalDate.of(2024, 2, 1)));
+        // The same account logged in from another browser, and someone else's session
+        sessionRegistry.registerNewSession("owner-phone", AppUserPrincipal.of(owner));
+        sessionRegistry.registerNewSession("bystander", AppUserPrincipal.of(bystander));
+
+        mockMvc.perform(delete("/api/account").with(user(AppUserPrincipal.of(owner))).with(csrf()))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.expensesTotal").value(2))
+                .andExpect(jsonPath("$.percentComplete").isNumber());
+
+        assertThat(sessionRegistry.getSessionInformation("owner-phone").isExpired()).isTrue();
+        assertThat(sessionRegistry.getSessionInformation("bystander").isExpired()).isFalse();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (accountDeletionService.getStatus(owner.getId()).orElseThrow().state()
+                != AccountDeletionStatus.State.COMPLETED && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+
+        AppUserPrincipal admin = new AppUserPrincipal(bystander.getId(), bystander.getUsername(), "", "ADMIN");
+        mockMvc.perform(get("/api/admin/account-deletions/" + owner.getId()).with(user(admin)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("COMPLETED"))
+                .andExpect(jsonPath("$.expensesDeleted").value(2))
+                .andExpect(jsonPath("$.percentComplete").value(100));
+
+        assertThat(userRepository.findById(owner.getId())).isEmpty();
+        assertThat(expenseRepository.findOldestIds(owner.getId(), Limit.of(1))).isEmpty();
+        assertThat(userBalanceRepository.findById(owner.getId())).isEmpty();
+        assertThat(monthlyRollupRepository.findByUserId(owner.getId())).isEmpty();
+        assertThat(expenseService.getSummary(bystander).totalExpenses()).isEqualByComparingTo("20.00");
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.expensetracker.controller;
+
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.repository.UserRepository;
+import com.example.expensetracker.security.AppUserPrincipal;
+import com.example.expensetracker.service.ExpenseService;
+import com.example.expensetracker.support.StatementBudget;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards the number of SQL statements the dashboard issues: one page query and one
+ * summary read, whatever the number of rows shown.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statement-budget;DB_CLOSE_DELAY=-1;NON_KEYWORDS=DATE,TYPE,VALUE,YEAR,MONTH",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureMockMvc
+class DashboardStatementBudgetTest {
+
+    private static final int DASHBOARD_BUDGET = 4;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    private AppUserPrincipal principal;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.findByUsername("budget").orElseGet(() -> {
+            User created = new User();
+            created.setUsername("budget");
+            created.setEmail("budget@example.com");
+            created.setPassword("{noop}password");
+            created = userRepository.save(created);
+            for (int i = 0; i < 60; i++) {
+                Expense expense = new Expense();
+                expense.setDescription(i % 2 == 0 ? "Coffee " + i : "Groceries " + i);
+                expense.setAmount(new BigDecimal("12.50"));
+                expense.setType(Expense.TransactionType.EXPENSE);
+                expense.setCategory(Expense.Category.FOOD);
+                expense.setDate(LocalDate.now().minusDays(i));
+                expense.setUser(created);
+                expenseService.saveExpense(expense);
+            }
+            return created;
+        });
+        principal = AppUserPrincipal.of(user);
+    }
+
+    @Test
+    void dashboardStaysWithinStatementBudget() throws Exception {
+        StatementBudget.assertAtMost(DASHBOARD_BUDGET, () ->
+                mockMvc.perform(get("/dashboard").with(user(principal)))
+                        .andExpect(status().isOk()));
+    }
+
+    @Test
+    void filteredDashboardStaysWithinStatementBudget() throws Exception {
+        StatementBudget.assertAtMost(DASHBOARD_BUDGET, () ->
+                mockMvc.perform(get("/dashboard")
+                                .param("search", "coffee")
+                                .param("type", "EXPENSE")
+                                .param("category", "FOOD")
+                                .param("period", "this_month")
+                                .with(user(principal)))
+                        .andExpect(status().isOk()));
+    }
+
+    @Test
+    void dashboardDoesNotRepeatStatementsPerRow() throws Exception {
+        StatementBudget.assertNoRepeatedStatements(2, () ->
+                mockMvc.perform(get("/dashboard").with(user(principal)))
+                        .andExpect(status().isOk()));
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.expensetracker.controller;
+
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.repository.UserRepository;
+import com.example.expensetracker.security.AppUserPrincipal;
+import com.example.expensetracker.service.ExpenseService;
+import com.example.expensetracker.support.H2IntegrationTest;
+import com.example.expensetracker.support.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@H2IntegrationTest
+@AutoConfigureMockMvc
+class ExportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    private AppUserPrincipal principal;
+
+    @BeforeEach
+    void setUp() {
+        User owner = TestData.newUser(userRepository);
+        expenseService.saveExpense(TestData.expense(owner, "Salary", "1000.00",
+                Expense.TransactionType.INCOME, Expense.Category.SALARY, LocalDate.of(2024, 1, 31)));
+        expenseService.saveExpense(TestData.expense(owner, "Coffee, large", "3.50",
+                Expense.TransactionType.EXPENSE, Expense.Category.FOOD, LocalDate.of(2024, 2, 1)));
+        principal = AppUserPrincipal.of(owner);
+    }
+
+    @Test
+    void exportsFilteredRowsAsCsv() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/export").param("type", "EXPENSE").with(user(principal)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().string("date,description,amount,type,category,notes\r\n"
+                        + "2024-02-01,\"Coffee, large\",3.50,EXPENSE,FOOD,\r\n"));
+    }
+
+    @Test
+    void unknownFormatIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/export").param("format", "xml").with(user(principal)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void invalidFilterValuesAreBadRequest() throws Exception {
+        mockMvc.perform(get("/api/export").param("type", "REFUND").with(user(principal)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/export").param("category", "HOUSING").with(user(principal)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/export").param("period", "custom").param("startDate", "2024-13-01")
+                        .with(user(principal)))
+                .andExpect(status().isBadRequest());
+    }
+}
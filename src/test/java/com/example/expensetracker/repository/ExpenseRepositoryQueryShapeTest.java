@@ -0,0 +1,114 @@
+package com.example.expensetracker.repository;
+
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.User;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.example.expensetracker.repository.ExpenseRepositoryQueryShapeTest$CapturingInspector"
+})
+class ExpenseRepositoryQueryShapeTest {
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setUsername("shape");
+        user.setEmail("shape@example.com");
+        user.setPassword("secret");
+        user = userRepository.save(user);
+
+        expenseRepository.save(expense(LocalDate.of(2024, 1, 31), Expense.TransactionType.EXPENSE, "10.00"));
+        expenseRepository.save(expense(LocalDate.of(2024, 2, 1), Expense.TransactionType.EXPENSE, "20.00"));
+        expenseRepository.save(expense(LocalDate.of(2024, 2, 29), Expense.TransactionType.INCOME, "30.00"));
+        expenseRepository.save(expense(LocalDate.of(2024, 3, 1), Expense.TransactionType.INCOME, "40.00"));
+        expenseRepository.flush();
+
+        CapturingInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    void monthQueriesUseHalfOpenDateRange() {
+        List<Expense> february = expenseRepository.findByUserAndMonth(user, 2024, 2);
+        BigDecimal income = expenseRepository.calculateMonthlyIncome(user, 2024, 2);
+        BigDecimal expenses = expenseRepository.calculateMonthlyExpenses(user, 2024, 2);
+
+        assertThat(february).hasSize(2);
+        assertThat(income).isEqualByComparingTo("30.00");
+        assertThat(expenses).isEqualByComparingTo("20.00");
+
+        assertThat(CapturingInspector.STATEMENTS).hasSize(3);
+        for (String sql : CapturingInspector.STATEMENTS) {
+            String normalized = sql.toLowerCase(Locale.ROOT).replaceAll("[\\s\"`]+", "");
+            assertThat(normalized)
+                    .contains("date>=?")
+                    .contains("date<?")
+                    .doesNotContain("year(")
+                    .doesNotContain("month(")
+                    .doesNotContain("extract(");
+        }
+    }
+
+    @Test
+    void compositeIndexesAreCreated() {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT LOWER(INDEX_NAME) FROM INFORMATION_SCHEMA.INDEXES WHERE LOWER(TABLE_NAME) = 'expenses'",
+                String.class);
+
+        assertThat(indexes).contains(
+                "idx_expenses_user_date",
+                "idx_expenses_user_type_date",
+                "idx_expenses_user_category_date");
+    }
+
+    private Expense expense(LocalDate date, Expense.TransactionType type, String amount) {
+        Expense expense = new Expense();
+        expense.setDescription("Test " + date);
+        expense.setAmount(new BigDecimal(amount));
+        expense.setType(type);
+        expense.setCategory(Expense.Category.OTHER);
+        expense.setDate(date);
+        expense.setUser(user);
+        return expense;
+    }
+
+    /**
+     * Records every SQL statement Hibernate prepares
+     */
+    public static class CapturingInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
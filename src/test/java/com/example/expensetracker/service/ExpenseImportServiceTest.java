@@ -0,0 +1,147 @@
+package com.example.expensetracker.service;
+
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.ExpenseSummary;
+import com.example.expensetracker.model.MonthlyRollup;
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.repository.ExpenseRepository;
+import com.example.expensetracker.repository.MonthlyRollupRepository;
+import com.example.expensetracker.repository.UserRepository;
+import com.example.expensetracker.support.H2IntegrationTest;
+import com.example.expensetracker.support.TestData;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@H2IntegrationTest
+class ExpenseImportServiceTest {
+
+    /** More digits than the amount column holds: passes validation, fails on insert */
+    private static final String OVERFLOWING_AMOUNT = "-" + "9".repeat(40) + ".00";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private MonthlyRollupRepository monthlyRollupRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private ExpenseImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        // Run imports on the calling thread, two rows per chunk
+        importService = new ExpenseImportService(entityManagerFactory, expenseService, Runnable::run, 2);
+    }
+
+    @Test
+    void importsValidRowsInChunksAndAppliesThemToDerivedData() {
+        User user = TestData.newUser(userRepository);
+        expenseService.saveExpense(TestData.expense(user, "Rent", "400.00",
+                Expense.TransactionType.EXPENSE, Expense.Category.BILLS, LocalDate.of(2024, 1, 1)));
+
+        ImportStatus status = importService.startImport(user, csv(
+                "Date,Description,Amount,Category",
+                "2024-01-05,Coffee,-3.50,Food",
+                "2024-01-31,Salary,1000.00,",
+                "2024-02-01,Bus,(2.40),Transport",
+                "not a date,Broken,-1.00,",
+                "2024-02-03,Groceries,\"-1,020.10\",Shopping"), null);
+
+        assertThat(status.state()).isEqualTo(ImportStatus.State.COMPLETED);
+        assertThat(status.percentComplete()).isEqualTo(100);
+        assertThat(status.rowsRead()).isEqualTo(5);
+        assertThat(status.rowsImported()).isEqualTo(4);
+        assertThat(status.rowsRejected()).isEqualTo(1);
+        assertThat(status.errors()).singleElement().asString().startsWith("Line 5:");
+
+        ExpenseSummary summary = expenseService.getSummary(user);
+        assertThat(summary.transactionCount()).isEqualTo(5);
+        assertThat(summary.totalIncome()).isEqualByComparingTo("1000.00");
+        assertThat(summary.totalExpenses()).isEqualByComparingTo("1426.00");
+        assertDerivedDataMatchesLedger(user);
+    }
+
+    @Test
+    void failedChunkRollsBackAndDerivedDataIsRebuilt() {
+        User user = TestData.newUser(userRepository);
+        // Written around ExpenseService, so only a rebuild brings the derived data in line
+        expenseRepository.save(TestData.expense(user, "Rent", "400.00",
+                Expense.TransactionType.EXPENSE, Expense.Category.BILLS, LocalDate.of(2024, 1, 1)));
+
+        ImportStatus status = importService.startImport(user, csv(
+                "Date,Description,Amount",
+                "2024-01-05,Coffee,-3.50",
+                "2024-01-31,Salary,1000.00",
+                "2024-02-01,Bus,-2.40",
+                "2024-02-02,Typo," + OVERFLOWING_AMOUNT,
+                "2024-02-03,Never read,-5.00"), null);
+
+        assertThat(status.state()).isEqualTo(ImportStatus.State.FAILED);
+        assertThat(status.percentComplete()).isLessThan(100);
+        assertThat(status.rowsImported()).isEqualTo(2);
+        assertThat(status.errors()).isNotEmpty();
+
+        // The first chunk stays committed; the failing chunk, including its valid row, is rolled back
+        assertThat(expenseRepository.summarize(user).transactionCount()).isEqualTo(3);
+        assertThat(expenseService.getSummary(user).totalExpenses()).isEqualByComparingTo("403.50");
+        assertDerivedDataMatchesLedger(user);
+    }
+
+    @Test
+    void statusIsOnlyVisibleToTheImportingUser() {
+        User user = TestData.newUser(userRepository);
+        User stranger = TestData.newUser(userRepository);
+
+        ImportStatus status = importService.startImport(user, csv(
+                "Date,Description,Amount",
+                "2024-01-05,Coffee,-3.50"), null);
+
+        assertThat(importService.getStatus(user, status.id())).map(ImportStatus::state)
+                .contains(ImportStatus.State.COMPLETED);
+        assertThat(importService.getStatus(stranger, status.id())).isEmpty();
+    }
+
+    private static MockMultipartFile csv(String... lines) {
+        byte[] content = (String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8);
+        return new MockMultipartFile("file", "export.csv", "text/csv", content);
+    }
+
+    /**
+     * The maintained balance and rollups equal what a fresh scan of the expenses table gives
+     */
+    private void assertDerivedDataMatchesLedger(User user) {
+        ExpenseSummary maintained = expenseService.getSummary(user);
+        ExpenseSummary scanned = expenseRepository.summarize(user);
+        assertThat(maintained.totalIncome()).isEqualByComparingTo(scanned.totalIncome());
+        assertThat(maintained.totalExpenses()).isEqualByComparingTo(scanned.totalExpenses());
+        assertThat(maintained.transactionCount()).isEqualTo(scanned.transactionCount());
+
+        assertThat(monthlyRollupRepository.findByUserId(user.getId()).stream()
+                .filter(bucket -> bucket.getTransactionCount() != 0)
+                .map(ExpenseImportServiceTest::describe))
+                .containsExactlyInAnyOrderElementsOf(expenseRepository.summarizeByMonth(user).stream()
+                        .map(ExpenseImportServiceTest::describe)
+                        .toList());
+    }
+
+    private static String describe(MonthlyRollup bucket) {
+        return bucket.getYear() + "-" + bucket.getMonth() + " " + bucket.getType() + " " + bucket.getCategory()
+                + " " + bucket.getTotal().stripTrailingZeros().toPlainString() + " x" + bucket.getTransactionCount();
+    }
+}
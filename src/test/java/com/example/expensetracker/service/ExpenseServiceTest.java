@@ -0,0 +1,178 @@
+package com.example.expensetracker.service;
+
+import com.example.expensetracker.config.StatementRecorder;
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.ExpenseSummary;
+import com.example.expensetracker.model.MonthlyRollup;
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.repository.ExpenseRepository;
+import com.example.expensetracker.repository.MonthlyRollupRepository;
+import com.example.expensetracker.repository.UserRepository;
+import com.example.expensetracker.support.H2IntegrationTest;
+import com.example.expensetracker.support.StatementBudget;
+import com.example.expensetracker.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@H2IntegrationTest
+class ExpenseServiceTest {
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MonthlyRollupRepository monthlyRollupRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void ownerScopedUpdateLocksTheRowAndLeavesNoStaleEntity() throws Exception {
+        User owner = TestData.newUser(userRepository);
+        Expense rent = expenseService.saveExpense(TestData.expense(owner, "Rent", "400.00",
+                Expense.TransactionType.EXPENSE, Expense.Category.BILLS, LocalDate.of(2024, 2, 1)));
+        Expense details = TestData.expense(owner, "Rent (new lease)", "450.00",
+                Expense.TransactionType.EXPENSE, Expense.Category.BILLS, LocalDate.of(2024, 2, 1));
+
+        StatementRecorder.Recording recording = StatementBudget.record(() -> transactionTemplate.executeWithoutResult(status -> {
+            // Load the entity into the persistence context first, as a caller in the same transaction might
+            assertThat(expenseRepository.findById(rent.getId())).isPresent();
+            assertThat(expenseService.updateExpense(rent.getId(), owner, details)).isTrue();
+            Expense reloaded = expenseRepository.findById(rent.getId()).orElseThrow();
+            assertThat(reloaded.getDescription()).isEqualTo("Rent (new lease)");
+            assertThat(reloaded.getAmount()).isEqualByComparingTo("450.00");
+        }));
+
+        assertThat(recording.statements().keySet())
+                .map(sql -> sql.toLowerCase(Locale.ROOT))
+                .anyMatch(sql -> sql.contains("for update"));
+    }
+
+    @Test
+    void ownerScopedDeleteRemovesTheRowFromThePersistenceContext() {
+        User owner = TestData.newUser(userRepository);
+        Expense coffee = expenseService.saveExpense(TestData.expense(owner, "Coffee", "3.50",
+                Expense.TransactionType.EXPENSE, Expense.Category.FOOD, LocalDate.of(2024, 3, 5)));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            assertThat(expenseRepository.findById(coffee.getId())).isPresent();
+            assertThat(expenseService.deleteExpense(coffee.getId(), owner)).isTrue();
+            assertThat(expenseRepository.findById(coffee.getId())).isEmpty();
+        });
+        assertThat(expenseService.getSummary(owner).transactionCount()).isZero();
+    }
+
+    @Test
+    void otherUsersCannotUpdateOrDelete() {
+        User owner = TestData.newUser(userRepository);
+        User stranger = TestData.newUser(userRepository);
+        Expense rent = expenseService.saveExpense(TestData.expense(owner, "Rent", "400.00",
+                Expense.TransactionType.EXPENSE, Expense.Category.BILLS, LocalDate.of(2024, 2, 1)));
+        Expense details = TestData.expense(stranger, "Mine now", "1.00",
+                Expense.TransactionType.INCOME, Expense.Category.OTHER, LocalDate.of(2024, 2, 1));
+
+        assertThat(expenseService.updateExpense(rent.getId(), stranger, details)).isFalse();
+        assertThat(expenseService.deleteExpense(rent.getId(), stranger)).isFalse();
+
+        Expense stored = expenseRepository.findById(rent.getId()).orElseThrow();
+        assertThat(stored.getDescription()).isEqualTo("Rent");
+        assertThat(expenseService.getSummary(owner).totalExpenses()).isEqualByComparingTo("400.00");
+    }
+
+    @Test
+    void filteredBulkWritesKeepBalanceAndRollupsInStep() throws Exception {
+        User owner = TestData.newUser(userRepository);
+        expenseService.saveExpense(TestData.expense(owner, "Salary", "1000.00",
+                Expense.TransactionType.INCOME, Expense.Category.SALARY, LocalDate.of(2024, 1, 31)));
+        expenseService.saveExpense(TestData.expense(owner, "Coffee", "3.50",
+                Expense.TransactionType.EXPENSE, Expense.Category.FOOD, LocalDate.of(2024, 2, 1)));
+        expenseService.saveExpense(TestData.expense(owner, "Coffee beans", "12.00",
+                Expense.TransactionType.EXPENSE, Expense.Category.SHOPPING, LocalDate.of(2024, 2, 10)));
+        expenseService.saveExpense(TestData.expense(owner, "Refund for coffee", "3.50",
+                Expense.TransactionType.EXPENSE, Expense.Category.FOOD, LocalDate.of(2024, 3, 2)));
+        expenseService.saveExpense(TestData.expense(owner, "Bus", "2.40",
+                Expense.TransactionType.EXPENSE, Expense.Category.TRANSPORT, LocalDate.of(2024, 3, 3)));
+
+        ExpenseFilter coffee = new ExpenseFilter("coffee", null, null, null, null);
+        assertThat(expenseService.recategorizeExpenses(owner, coffee, Expense.Category.FOOD)).isEqualTo(3);
+        assertDerivedDataMatchesLedger(owner);
+
+        ExpenseFilter refunds = new ExpenseFilter("refund", null, null, null, null);
+        assertThat(expenseService.retypeExpenses(owner, refunds, Expense.TransactionType.INCOME)).isEqualTo(1);
+        assertDerivedDataMatchesLedger(owner);
+
+        ExpenseFilter foodExpenses = new ExpenseFilter(null, Expense.TransactionType.EXPENSE, Expense.Category.FOOD,
+                null, null);
+        StatementRecorder.Recording recording = StatementBudget.record(() ->
+                assertThat(expenseService.deleteExpenses(owner, foodExpenses)).isEqualTo(2));
+        assertDerivedDataMatchesLedger(owner);
+        assertThat(recording.statements().keySet())
+                .filteredOn(sql -> sql.toLowerCase(Locale.ROOT).startsWith("delete from expenses"))
+                .hasSize(1);
+
+        ExpenseSummary summary = expenseService.getSummary(owner);
+        assertThat(summary.transactionCount()).isEqualTo(3);
+        assertThat(summary.totalIncome()).isEqualByComparingTo("1003.50");
+        assertThat(summary.totalExpenses()).isEqualByComparingTo("2.40");
+        assertThat(summary.lastDate()).isEqualTo(LocalDate.of(2024, 3, 3));
+    }
+
+    @Test
+    void bulkWritesByIdSkipOtherUsersRows() {
+        User owner = TestData.newUser(userRepository);
+        User stranger = TestData.newUser(userRepository);
+        Expense mine = expenseService.saveExpense(TestData.expense(owner, "Lunch", "10.00",
+                Expense.TransactionType.EXPENSE, Expense.Category.FOOD, LocalDate.of(2024, 4, 1)));
+        Expense theirs = expenseService.saveExpense(TestData.expense(stranger, "Lunch", "20.00",
+                Expense.TransactionType.EXPENSE, Expense.Category.FOOD, LocalDate.of(2024, 4, 1)));
+
+        assertThat(expenseService.retypeExpenses(owner, List.of(mine.getId(), theirs.getId()),
+                Expense.TransactionType.INCOME)).isEqualTo(1);
+        assertThat(expenseService.deleteExpenses(stranger, List.of(mine.getId()))).isZero();
+        assertDerivedDataMatchesLedger(owner);
+        assertDerivedDataMatchesLedger(stranger);
+
+        assertThat(expenseService.deleteExpenses(owner, List.of(mine.getId(), theirs.getId()))).isEqualTo(1);
+        assertDerivedDataMatchesLedger(owner);
+        assertThat(expenseService.getSummary(owner).transactionCount()).isZero();
+        assertThat(expenseService.getSummary(stranger).totalExpenses()).isEqualByComparingTo("20.00");
+    }
+
+    /**
+     * The maintained balance and rollups equal what a fresh scan of the expenses table gives
+     */
+    private void assertDerivedDataMatchesLedger(User user) {
+        ExpenseSummary maintained = expenseService.getSummary(user);
+        ExpenseSummary scanned = expenseRepository.summarize(user);
+        assertThat(maintained.totalIncome()).isEqualByComparingTo(scanned.totalIncome());
+        assertThat(maintained.totalExpenses()).isEqualByComparingTo(scanned.totalExpenses());
+        assertThat(maintained.transactionCount()).isEqualTo(scanned.transactionCount());
+        assertThat(maintained.firstDate()).isEqualTo(scanned.firstDate());
+        assertThat(maintained.lastDate()).isEqualTo(scanned.lastDate());
+
+        assertThat(monthlyRollupRepository.findByUserId(user.getId()).stream()
+                .filter(bucket -> bucket.getTransactionCount() != 0)
+                .map(ExpenseServiceTest::describe))
+                .containsExactlyInAnyOrderElementsOf(expenseRepository.summarizeByMonth(user).stream()
+                        .map(ExpenseServiceTest::describe)
+                        .toList());
+    }
+
+    private static String describe(MonthlyRollup bucket) {
+        return bucket.getYear() + "-" + bucket.getMonth() + " " + bucket.getType() + " " + bucket.getCategory()
+                + " " + bucket.getTotal().stripTrailingZeros().toPlainString() + " x" + bucket.getTransactionCount();
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.expensetracker.service;
+
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.repository.ExpenseRepository;
+import com.example.expensetracker.support.H2IntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@H2IntegrationTest
+class LedgerSnapshotCacheTest {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ExpenseRepository expenseRepository;
+    private LedgerSnapshotCache cache;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        expenseRepository = mock(ExpenseRepository.class);
+        cache = new LedgerSnapshotCache(expenseRepository, transactionManager, true, 0, DataSize.ofMegabytes(1));
+        user = new User();
+        user.setId(42L);
+    }
+
+    @Test
+    void buildReadsInItsOwnReadOnlyTransaction() {
+        List<String> seen = new ArrayList<>();
+        when(expenseRepository.findLedgerColumns(user)).thenAnswer(invocation -> {
+            seen.add(TransactionSynchronizationManager.getCurrentTransactionName() + " readOnly="
+                    + TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+            return rows(2);
+        });
+
+        TransactionTemplate request = new TransactionTemplate(transactionManager);
+        request.setName("request");
+        request.setReadOnly(true);
+        request.executeWithoutResult(status -> assertThat(cache.find(user, 2)).isPresent());
+
+        assertThat(seen).hasSize(1);
+        assertThat(seen.get(0)).doesNotStartWith("request").endsWith("readOnly=true");
+    }
+
+    @Test
+    void snapshotIsReusedUntilInvalidated() {
+        when(expenseRepository.findLedgerColumns(user)).thenReturn(rows(2), rows(3));
+
+        LedgerSnapshot first = cache.find(user, 2).orElseThrow();
+        assertThat(cache.find(user, 2)).containsSame(first);
+
+        cache.invalidate(user.getId());
+        assertThat(cache.find(user, 3).orElseThrow().size()).isEqualTo(3);
+        verify(expenseRepository, times(2)).findLedgerColumns(user);
+    }
+
+    @Test
+    void buildRacingWithAWriteIsNotStored() {
+        when(expenseRepository.findLedgerColumns(user)).thenAnswer(invocation -> {
+            // A write commits while the ledger is being read
+            cache.invalidate(user.getId());
+            return rows(2);
+        }).thenReturn(rows(3));
+
+        assertThat(cache.find(user, 2).orElseThrow().size()).isEqualTo(2);
+        assertThat(cache.find(user, 3).orElseThrow().size()).isEqualTo(3);
+        verify(expenseRepository, times(2)).findLedgerColumns(user);
+    }
+
+    private static List<Object[]> rows(int count) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = count; i > 0; i--) {
+            rows.add(new Object[]{(long) i, LocalDate.of(2024, 1, i), new BigDecimal("1.00"),
+                    Expense.TransactionType.EXPENSE, Expense.Category.FOOD, "Row " + i});
+        }
+        return rows;
+    }
+}
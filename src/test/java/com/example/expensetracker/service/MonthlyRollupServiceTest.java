@@ -0,0 +1,133 @@
+package com.example.expensetracker.service;
+
+import com.example.expensetracker.config.MonthlyRollupBackfill;
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.MonthlyRollup;
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.repository.ExpenseRepository;
+import com.example.expensetracker.repository.MonthlyRollupRepository;
+import com.example.expensetracker.repository.UserRepository;
+import com.example.expensetracker.support.H2IntegrationTest;
+import com.example.expensetracker.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@H2IntegrationTest
+class MonthlyRollupServiceTest {
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private MonthlyRollupService monthlyRollupService;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private MonthlyRollupRepository monthlyRollupRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MonthlyRollupBackfill monthlyRollupBackfill;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void bucketsFollowAddsMovesAndDeletes() {
+        User user = TestData.newUser(userRepository);
+        Expense lunch = expenseService.saveExpense(TestData.expense(user, "Lunch", "10.00",
+                Expense.TransactionType.EXPENSE, Expense.Category.FOOD, LocalDate.of(2024, 4, 1)));
+        expenseService.saveExpense(TestData.expense(user, "Dinner", "25.00",
+                Expense.TransactionType.EXPENSE, Expense.Category.FOOD, LocalDate.of(2024, 4, 20)));
+        Expense taxi = expenseService.saveExpense(TestData.expense(user, "Taxi", "18.00",
+                Expense.TransactionType.EXPENSE, Expense.Category.TRANSPORT, LocalDate.of(2024, 5, 2)));
+
+        Expense movedLunch = TestData.expense(user, "Lunch", "12.00",
+                Expense.TransactionType.EXPENSE, Expense.Category.FOOD, LocalDate.of(2024, 5, 1));
+        assertThat(expenseService.updateExpense(lunch.getId(), user, movedLunch)).isTrue();
+        assertThat(expenseService.deleteExpense(taxi.getId(), user)).isTrue();
+
+        assertThat(nonEmptyBuckets(user)).containsExactlyInAnyOrder(
+                "2024-4 EXPENSE FOOD 25 x1",
+                "2024-5 EXPENSE FOOD 12 x1");
+        assertThat(nonEmptyBuckets(user)).containsExactlyInAnyOrderElementsOf(scannedBuckets(user));
+    }
+
+    @Test
+    void upsertedAndRebuiltBucketsDrawDistinctIds() {
+        List<User> users = new ArrayList<>();
+        for (int round = 0; round < 3; round++) {
+            User writer = TestData.newUser(userRepository);
+            User rebuilt = TestData.newUser(userRepository);
+            users.add(writer);
+            users.add(rebuilt);
+            // 60 buckets each: more than one block of the pooled sequence
+            for (int month = 0; month < 60; month++) {
+                LocalDate date = LocalDate.of(2020, 1, 1).plusMonths(month);
+                expenseService.saveExpense(TestData.expense(writer, "Lunch", "10.00",
+                        Expense.TransactionType.EXPENSE, Expense.Category.FOOD, date));
+                expenseRepository.save(TestData.expense(rebuilt, "Lunch", "10.00",
+                        Expense.TransactionType.EXPENSE, Expense.Category.FOOD, date));
+            }
+            transactionTemplate.executeWithoutResult(status -> monthlyRollupService.rebuild(rebuilt));
+        }
+
+        List<Long> ids = new ArrayList<>();
+        for (User user : users) {
+            monthlyRollupRepository.findByUserId(user.getId()).forEach(bucket -> ids.add(bucket.getId()));
+            assertThat(nonEmptyBuckets(user)).containsExactlyInAnyOrderElementsOf(scannedBuckets(user));
+        }
+        assertThat(ids).hasSize(360).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void backfillRebuildsLedgersWithoutBucketsInTheBackground() throws Exception {
+        User user = TestData.newUser(userRepository);
+        // Written around ExpenseService, as before the rollups were maintained
+        expenseRepository.save(TestData.expense(user, "Lunch", "10.00",
+                Expense.TransactionType.EXPENSE, Expense.Category.FOOD, LocalDate.of(2023, 6, 1)));
+        expenseRepository.save(TestData.expense(user, "Salary", "900.00",
+                Expense.TransactionType.INCOME, Expense.Category.SALARY, LocalDate.of(2023, 6, 30)));
+        assertThat(nonEmptyBuckets(user)).isEmpty();
+
+        monthlyRollupBackfill.backfill();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (nonEmptyBuckets(user).isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(nonEmptyBuckets(user)).containsExactlyInAnyOrder(
+                "2023-6 EXPENSE FOOD 10 x1",
+                "2023-6 INCOME SALARY 900 x1");
+    }
+
+    private List<String> nonEmptyBuckets(User user) {
+        return monthlyRollupRepository.findByUserId(user.getId()).stream()
+                .filter(bucket -> bucket.getTransactionCount() != 0)
+                .map(MonthlyRollupServiceTest::describe)
+                .toList();
+    }
+
+    private List<String> scannedBuckets(User user) {
+        return expenseRepository.summarizeByMonth(user).stream()
+                .map(MonthlyRollupServiceTest::describe)
+                .toList();
+    }
+
+    private static String describe(MonthlyRollup bucket) {
+        return bucket.getYear() + "-" + bucket.getMonth() + " " + bucket.getType() + " " + bucket.getCategory()
+                + " " + bucket.getTotal().stripTrailingZeros().toPlainString() + " x" + bucket.getTransactionCount();
+    }
+}
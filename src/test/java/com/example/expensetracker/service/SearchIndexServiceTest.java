@@ -0,0 +1,76 @@
+package com.example.expensetracker.service;
+
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.repository.SearchIndexedUserRepository;
+import com.example.expensetracker.repository.UserRepository;
+import com.example.expensetracker.support.H2IntegrationTest;
+import com.example.expensetracker.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@H2IntegrationTest
+class SearchIndexServiceTest {
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SearchIndexedUserRepository searchIndexedUserRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void indexedUserIsAnsweredFromPostings() {
+        User user = TestData.newUser(userRepository);
+        searchIndexService.markIndexed(user);
+        Expense coffee = save(user, "Coffee beans");
+        Expense train = save(user, "Train ticket");
+
+        assertThat(searchIndexService.search(user, "coffee", 10)).containsExactly(coffee.getId());
+
+        // A row without postings is invisible to an indexed user, though a LIKE scan would find it
+        jdbcTemplate.update("DELETE FROM search_grams WHERE expense_id = ?", coffee.getId());
+
+        assertThat(searchIndexService.search(user, "coffee", 10)).isEmpty();
+        assertThat(dashboardSearch(user, "coffee")).isEmpty();
+        assertThat(dashboardSearch(user, "train")).extracting(Expense::getId).containsExactly(train.getId());
+    }
+
+    @Test
+    void unindexedUserIsScannedUntilReindexed() {
+        User user = TestData.newUser(userRepository);
+        Expense coffee = save(user, "Coffee beans");
+        jdbcTemplate.update("DELETE FROM search_grams WHERE expense_id = ?", coffee.getId());
+
+        assertThat(dashboardSearch(user, "coffee")).extracting(Expense::getId).containsExactly(coffee.getId());
+
+        searchIndexService.reindexNow(user);
+
+        assertThat(searchIndexedUserRepository.existsById(user.getId())).isTrue();
+        assertThat(searchIndexService.search(user, "coffee", 10)).containsExactly(coffee.getId());
+    }
+
+    private Expense save(User user, String description) {
+        return expenseService.saveExpense(TestData.expense(user, description, "4.20",
+                Expense.TransactionType.EXPENSE, Expense.Category.FOOD, LocalDate.of(2024, 5, 1)));
+    }
+
+    private List<Expense> dashboardSearch(User user, String search) {
+        ExpenseFilter filter = ExpenseFilter.fromRequest(search, null, null, null, null, null);
+        return expenseService.getExpensePage(user, filter, null, 10).expenses();
+    }
+}
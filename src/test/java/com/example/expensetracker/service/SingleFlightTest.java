@@ -0,0 +1,106 @@
+package com.example.expensetracker.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SingleFlightTest {
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(2, task -> new Thread(task, "read-pool"));
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+        callers.shutdownNow();
+    }
+
+    @Test
+    void leaderComputesOnItsOwnThreadAndFollowersShareTheResult() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(pool, Duration.ofSeconds(10));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<Thread> computedOn = new AtomicReference<>();
+        AtomicInteger followerLoads = new AtomicInteger();
+
+        Future<String> leader = callers.submit(() -> singleFlight.execute(1L, "page", () -> {
+            computedOn.set(Thread.currentThread());
+            started.countDown();
+            await(release);
+            return "shared";
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Future<String> follower = callers.submit(() -> singleFlight.execute(1L, "page", () -> {
+            followerLoads.incrementAndGet();
+            return "own";
+        }));
+        Thread.sleep(100);
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("shared");
+        assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("shared");
+        assertThat(followerLoads).hasValue(0);
+        assertThat(computedOn.get().getName()).isNotEqualTo("read-pool");
+    }
+
+    @Test
+    void followerPastMaxWaitLoadsOnItsOwn() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(pool, Duration.ofMillis(50));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = callers.submit(() -> singleFlight.execute(1L, "page", () -> {
+            started.countDown();
+            await(release);
+            return "shared";
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(singleFlight.execute(1L, "page", () -> "own")).isEqualTo("own");
+        release.countDown();
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("shared");
+    }
+
+    @Test
+    void cancellingOneCallersViewLeavesTheSharedComputationRunning() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(pool, Duration.ofSeconds(10));
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        CompletableFuture<String> first = singleFlight.submit(1L, "summary", () -> {
+            loads.incrementAndGet();
+            await(release);
+            return "summary";
+        });
+        CompletableFuture<String> second = singleFlight.submit(1L, "summary", () -> {
+            loads.incrementAndGet();
+            return "other";
+        });
+
+        first.cancel(true);
+        release.countDown();
+
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("summary");
+        assertThat(loads).hasValue(1);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
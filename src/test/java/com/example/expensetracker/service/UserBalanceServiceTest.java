@@ -0,0 +1,91 @@
+package com.example.expensetracker.service;
+
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.ExpenseSummary;
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.repository.UserBalanceRepository;
+import com.example.expensetracker.repository.UserRepository;
+import com.example.expensetracker.support.H2IntegrationTest;
+import com.example.expensetracker.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@H2IntegrationTest
+class UserBalanceServiceTest {
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserBalanceRepository userBalanceRepository;
+
+    @Test
+    void balanceFollowsAddsUpdatesAndDeletes() {
+        User user = TestData.newUser(userRepository);
+        Expense salary = expenseService.saveExpense(TestData.expense(user, "Salary", "1000.00",
+                Expense.TransactionType.INCOME, Expense.Category.SALARY, LocalDate.of(2024, 1, 31)));
+        Expense rent = expenseService.saveExpense(TestData.expense(user, "Rent", "400.00",
+                Expense.TransactionType.EXPENSE, Expense.Category.BILLS, LocalDate.of(2024, 2, 1)));
+        Expense coffee = expenseService.saveExpense(TestData.expense(user, "Coffee", "3.50",
+                Expense.TransactionType.EXPENSE, Expense.Category.FOOD, LocalDate.of(2024, 3, 5)));
+
+        Expense moreRent = TestData.expense(user, "Rent", "450.00",
+                Expense.TransactionType.EXPENSE, Expense.Category.BILLS, LocalDate.of(2024, 2, 1));
+        assertThat(expenseService.updateExpense(rent.getId(), user, moreRent)).isTrue();
+        assertThat(expenseService.deleteExpense(coffee.getId(), user)).isTrue();
+
+        ExpenseSummary summary = expenseService.getSummary(user);
+        assertThat(summary.totalIncome()).isEqualByComparingTo("1000.00");
+        assertThat(summary.totalExpenses()).isEqualByComparingTo("450.00");
+        assertThat(summary.transactionCount()).isEqualTo(2);
+        assertThat(summary.firstDate()).isEqualTo(salary.getDate());
+        assertThat(summary.lastDate()).isEqualTo(LocalDate.of(2024, 2, 1));
+    }
+
+    @Test
+    void concurrentFirstWritesBothCount() throws Exception {
+        ExecutorService writers = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 10; round++) {
+                User user = TestData.newUser(userRepository);
+                assertThat(userBalanceRepository.existsById(user.getId())).isFalse();
+
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Expense>> writes = new ArrayList<>();
+                for (int i = 0; i < 2; i++) {
+                    // Different months, so only the balance row is contended
+                    LocalDate date = LocalDate.of(2024, 4 + i, 1);
+                    writes.add(writers.submit(() -> {
+                        start.await();
+                        return expenseService.saveExpense(TestData.expense(user, "Lunch", "10.00",
+                                Expense.TransactionType.EXPENSE, Expense.Category.FOOD, date));
+                    }));
+                }
+                start.countDown();
+                for (Future<Expense> write : writes) {
+                    write.get(10, TimeUnit.SECONDS);
+                }
+
+                ExpenseSummary summary = expenseService.getSummary(user);
+                assertThat(summary.transactionCount()).isEqualTo(2);
+                assertThat(summary.totalExpenses()).isEqualByComparingTo("20.00");
+            }
+        } finally {
+            writers.shutdownNow();
+        }
+    }
+}
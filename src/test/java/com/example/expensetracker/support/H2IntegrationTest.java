@@ -0,0 +1,27 @@
+package com.example.expensetracker.support;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Boots the full application against an in-memory H2 database instead of the PG* environment.
+ * Every class carrying it shares one application context and one database, so tests create
+ * their own users rather than assuming an empty schema.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:integration;DB_CLOSE_DELAY=-1;NON_KEYWORDS=DATE,TYPE,VALUE,YEAR,MONTH",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        // Background backfills would race with the tests' own users; tests run them explicitly
+        "expensetracker.search-index.backfill-on-startup=false"
+})
+public @interface H2IntegrationTest {
+}
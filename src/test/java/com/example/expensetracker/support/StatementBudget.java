@@ -0,0 +1,59 @@
+package com.example.expensetracker.support;
+
+import com.example.expensetracker.config.StatementRecorder;
+
+import java.util.Map;
+
+/**
+ * Assertions on the number of SQL statements an action issues, for integration tests.
+ * Requires CountingStatementInspector to be the session factory's statement inspector
+ * (it is, through application.properties). Statements run on the application task
+ * executor on the action's behalf are included.
+ */
+public final class StatementBudget {
+
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+
+    private StatementBudget() {
+    }
+
+    /**
+     * Run the action and return what it issued
+     */
+    public static StatementRecorder.Recording record(Action action) throws Exception {
+        try (StatementRecorder.Recording recording = StatementRecorder.start()) {
+            action.run();
+            return recording;
+        }
+    }
+
+    /**
+     * Fail if the action issues more than maxStatements statements
+     */
+    public static void assertAtMost(int maxStatements, Action action) throws Exception {
+        StatementRecorder.Recording recording = record(action);
+        if (recording.count() > maxStatements) {
+            throw new AssertionError("Expected at most " + maxStatements + " SQL statements but "
+                    + recording.count() + " were issued:" + describe(recording.statements()));
+        }
+    }
+
+    /**
+     * Fail if the action issues any statement threshold times or more (an N+1 pattern)
+     */
+    public static void assertNoRepeatedStatements(int threshold, Action action) throws Exception {
+        Map<String, Integer> repeated = record(action).repeated(threshold);
+        if (!repeated.isEmpty()) {
+            throw new AssertionError("Statements repeated " + threshold + "+ times:" + describe(repeated));
+        }
+    }
+
+    private static String describe(Map<String, Integer> statements) {
+        StringBuilder description = new StringBuilder();
+        statements.forEach((sql, count) -> description.append("\n  ").append(count).append("x ").append(sql));
+        return description.toString();
+    }
+}
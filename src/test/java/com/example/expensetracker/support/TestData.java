@@ -0,0 +1,39 @@
+package com.example.expensetracker.support;
+
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.User;
+import com.example.expensetracker.repository.UserRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Builders for integration tests that share one database: every user gets a unique name.
+ */
+public final class TestData {
+
+    private TestData() {
+    }
+
+    public static User newUser(UserRepository userRepository) {
+        String name = "user-" + UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setUsername(name);
+        user.setEmail(name + "@example.com");
+        user.setPassword("{noop}password");
+        return userRepository.save(user);
+    }
+
+    public static Expense expense(User user, String description, String amount,
+                                  Expense.TransactionType type, Expense.Category category, LocalDate date) {
+        Expense expense = new Expense();
+        expense.setUser(user);
+        expense.setDescription(description);
+        expense.setAmount(new BigDecimal(amount));
+        expense.setType(type);
+        expense.setCategory(category);
+        expense.setDate(date);
+        return expense;
+    }
+}